@@ -0,0 +1,78 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+// Petit banc d'essai sans dépendance : échauffement, puis plusieurs itérations
+// mesurées en opérations par seconde et en octets alloués par opération
+// (compteur d'allocation du fil courant de la JVM HotSpot).
+public final class Harness {
+    public interface Operation {
+        long run();
+    }
+
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationMillis;
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    // Empêche le JIT d'éliminer les calculs mesurés
+    private volatile long sink;
+
+    public Harness(int warmupIterations, int measureIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measureIterations = measureIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    public static void printHeader() {
+        System.out.printf(Locale.ROOT, "%-48s %14s %10s %10s%n", "Benchmark", "ops/s", "+/- %", "B/op");
+    }
+
+    public void measure(String name, Operation operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(operation);
+        }
+
+        double[] rates = new double[measureIterations];
+        long totalOps = 0;
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < measureIterations; i++) {
+            long start = System.nanoTime();
+            long ops = runIteration(operation);
+            rates[i] = ops * 1e9 / (System.nanoTime() - start);
+            totalOps += ops;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        double mean = 0;
+        for (double rate : rates) {
+            mean += rate;
+        }
+        mean /= rates.length;
+        double variance = 0;
+        for (double rate : rates) {
+            variance += (rate - mean) * (rate - mean);
+        }
+        double error = rates.length > 1 ? Math.sqrt(variance / (rates.length - 1)) * 100 / mean : 0;
+
+        System.out.printf(Locale.ROOT, "%-48s %14.0f %10.1f %10.1f%n",
+                          name, mean, error, (double) allocated / totalOps);
+    }
+
+    private long runIteration(Operation operation) {
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000L;
+        long ops = 0;
+        long result = 0;
+        // On vérifie l'heure toutes les 64 opérations pour ne pas la mesurer
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 64; i++) {
+                result += operation.run();
+            }
+            ops += 64;
+        }
+        sink = result;
+        return ops;
+    }
+}
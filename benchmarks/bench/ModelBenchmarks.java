@@ -0,0 +1,135 @@
+package bench;
+
+import model.Board;
+import model.Game;
+import model.MoveList;
+import model.Piece;
+import model.PieceColor;
+
+// Bancs d'essai des chemins chauds du paquet model, sur des positions fixes.
+// Usage : java bench.ModelBenchmarks [échauffements] [itérations] [ms par itération] [filtre]
+public class ModelBenchmarks {
+    static final String OPENING = "W:W31-50:B1-20";
+    static final String MIDDLEGAME =
+            "W:W27,28,30,31,32,33,34,35,36,37,38,39,40,41,43,44,45:B6-20,22,23";
+    // Rafle de trois pièces avec promotion
+    static final String TACTICAL = "W:W32,33,34,38,39,43,44,48,K49:B6,9,12,13,17,18,19,24,27,28,29";
+    static final String QUEEN_ENDGAME = "W:WK3,38,40,K46:BK5,14,19,24,K41";
+
+    static final String[] NAMES = {"ouverture", "milieu", "tactique", "finale-dames"};
+    static final String[] POSITIONS = {OPENING, MIDDLEGAME, TACTICAL, QUEEN_ENDGAME};
+
+    public static void main(String[] args) {
+        int warmup = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long millis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        String filter = args.length > 3 ? args[3] : "";
+
+        Harness harness = new Harness(warmup, iterations, millis);
+        Harness.printHeader();
+        for (int p = 0; p < POSITIONS.length; p++) {
+            Board board = new Board();
+            board.setFen(POSITIONS[p]);
+            PieceColor color = board.getSideToMove();
+            String suffix = " [" + NAMES[p] + "]";
+
+            // L'état des coups est gardé par Board jusqu'au prochain changement : un coup joué
+            // puis annulé l'efface, pour mesurer le calcul et non la lecture du cache
+            MoveList legal = new MoveList();
+            board.generateLegalMoves(legal);
+            long reset = legal.get(0);
+            run(harness, filter, "Board.hasMandatoryCaptures" + suffix, () -> {
+                board.makeMove(reset);
+                board.unmakeMove(reset);
+                return board.hasMandatoryCaptures(color) ? 1 : 0;
+            });
+
+            run(harness, filter, "Piece.hasAvailableMoves" + suffix, () -> {
+                long count = 0;
+                for (int row = 0; row < Board.SIZE; row++) {
+                    for (int col = 0; col < Board.SIZE; col++) {
+                        Piece piece = board.getPiece(row, col);
+                        if (piece != null && piece.hasAvailableMoves(row, col, board)) {
+                            count++;
+                        }
+                    }
+                }
+                return count;
+            });
+
+            run(harness, filter, "Queen.canCapture" + suffix, () -> {
+                long count = 0;
+                for (int row = 0; row < Board.SIZE; row++) {
+                    for (int col = 0; col < Board.SIZE; col++) {
+                        Piece piece = board.getPiece(row, col);
+                        if (piece != null && piece.isQueen()) {
+                            for (int r = 0; r < Board.SIZE; r++) {
+                                for (int c = 0; c < Board.SIZE; c++) {
+                                    if (piece.canCapture(row, col, r, c, board)) {
+                                        count++;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+                return count;
+            });
+
+            // Recherche des rafles de l'ordinateur : le générateur de coups légaux
+            MoveList moves = new MoveList();
+            run(harness, filter, "Board.generateLegalMoves" + suffix, () -> {
+                board.generateLegalMoves(moves);
+                return moves.size();
+            });
+
+            run(harness, filter, "Board.makeMove/unmakeMove" + suffix, () -> {
+                board.generateLegalMoves(moves);
+                for (int i = 0; i < moves.size(); i++) {
+                    board.makeMove(moves.get(i));
+                    board.unmakeMove(moves.get(i));
+                }
+                return board.getHash();
+            });
+
+            // Fin de tour : chaque coup suivi du test de fin de partie de Game
+            run(harness, filter, "Board.hasLegalMoves (fin de tour)" + suffix, () -> {
+                board.generateLegalMoves(moves);
+                long count = 0;
+                for (int i = 0; i < moves.size(); i++) {
+                    board.makeMove(moves.get(i));
+                    if (board.getPieceCount(color.opposite()) > 0 && board.hasLegalMoves(color.opposite())) {
+                        count++;
+                    }
+                    board.unmakeMove(moves.get(i));
+                }
+                return count;
+            });
+
+            run(harness, filter, "Board.getBoardState/setBoardState" + suffix, () -> {
+                String[][] state = board.getBoardState();
+                board.setBoardState(state);
+                return state.length;
+            });
+
+            // Surlignage des coups possibles de GameView : Game.getTargets pour chaque pièce
+            Game game = new Game(color, "easy");
+            game.getBoard().setFen(POSITIONS[p]);
+            run(harness, filter, "Game.getTargets (surlignage)" + suffix, () -> {
+                long targets = 0;
+                for (int row = 0; row < Board.SIZE; row++) {
+                    for (int col = 0; col < Board.SIZE; col++) {
+                        targets ^= game.getTargets(row, col);
+                    }
+                }
+                return targets;
+            });
+        }
+    }
+
+    private static void run(Harness harness, String filter, String name, Harness.Operation operation) {
+        if (name.contains(filter)) {
+            harness.measure(name, operation);
+        }
+    }
+}
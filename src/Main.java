@@ -1,4 +1,5 @@
 import controller.LoginController;
+import engine.EngineExecutor;
 import model.Database;
 import view.LoginView;
 
@@ -14,8 +15,9 @@ public class Main {
         
         loginView.setVisible(true);
         
-        // Ajouter un shutdown hook pour fermer la connexion à la base de données
+        // Ajouter un shutdown hook pour arrêter l'ordinateur et fermer la connexion à la base de données
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            EngineExecutor.get().shutdown(2000);
             db.close();
         }));
     }
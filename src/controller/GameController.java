@@ -2,10 +2,12 @@ package controller;
 
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import javax.swing.JOptionPane;
 import model.Database;
 import model.Game;
-import model.Piece;
+import model.PieceColor;
 import model.Player;
 import view.GameView;
 
@@ -48,19 +50,14 @@ public class GameController {
 
                 if (selectedRow == -1 && selectedCol == -1) {
                     if (isPlayerPiece(row, col)) {
-                        selectedRow = row;
-                        selectedCol = col;
-                        view.setSelected(row, col);
+                        select(row, col);
                         view.drawBoard(game.getBoard());
                     }
                 } else {
                     if (game.makeMove(selectedRow, selectedCol, row, col)) {
-                        // Vérifier si le même pion peut encore capturer
-                        Piece movedPiece = game.getBoard().getPiece(row, col);
-                        if (movedPiece != null && movedPiece.hasAvailableCaptures(game.getBoard())) {
-                            selectedRow = row;
-                            selectedCol = col;
-                            view.setSelected(row, col);
+                        // Le même pion doit continuer sa rafle
+                        if (game.isCapturing()) {
+                            select(row, col);
                         } else {
                             view.resetSelection();
                             selectedRow = -1;
@@ -72,11 +69,9 @@ public class GameController {
                         if (game.isGameOver()) {
                             game.endGame();
                         }
-                    } else {
+                    } else if (!game.isCapturing()) {
                         if (isPlayerPiece(row, col)) {
-                            selectedRow = row;
-                            selectedCol = col;
-                            view.setSelected(row, col);
+                            select(row, col);
                         } else {
                             view.resetSelection();
                             selectedRow = -1;
@@ -104,15 +99,30 @@ public class GameController {
                 view.dispose();
             }
         });
+
+        // Bouton Quitter ou croix de la fenêtre : les travaux de l'ordinateur sont arrêtés
+        view.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                game.dispose();
+            }
+        });
+    }
+
+    private void select(int row, int col) {
+        selectedRow = row;
+        selectedCol = col;
+        view.setSelected(row, col);
+        view.setPossibleMoves(game.getTargets(row, col));
     }
 
     private boolean isPlayerPiece(int row, int col) {
         return game.getBoard().getPiece(row, col) != null && 
-               game.getBoard().getPiece(row, col).getColor().equals(game.getHumanPlayerColor());
+               game.getBoard().getPiece(row, col).getColor() == game.getHumanPlayerColor();
     }
 
     private void updateStatus() {
-        String status = "Tour: " + (game.getCurrentPlayer().equals("white") ? "Blancs" : "Noirs");
+        String status = "Tour: " + (game.getCurrentPlayer() == PieceColor.WHITE ? "Blancs" : "Noirs");
         if (game.isHumanTurn()) {
             status += " (Votre tour)";
         } else {
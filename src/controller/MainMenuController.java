@@ -6,6 +6,7 @@ import java.awt.event.ActionListener;
 import javax.swing.JOptionPane;
 import model.Database;
 import model.Game;
+import model.PieceColor;
 import model.Player;
 import view.GameView;
 import view.MainMenuView;
@@ -56,10 +57,10 @@ public class MainMenuController {
                 
                 if (colorChoice == JOptionPane.CLOSED_OPTION) return;
                 
-                String playerColor = (colorChoice == 0) ? "white" : "black";
+                PieceColor playerColor = (colorChoice == 0) ? PieceColor.WHITE : PieceColor.BLACK;
                 
                 // Difficulty choice
-                Object[] difficultyOptions = {"Facile", "Moyenne", "Difficile"};
+                Object[] difficultyOptions = {"Facile", "Moyenne", "Difficile", "Monte-Carlo"};
                 int difficultyChoice = JOptionPane.showOptionDialog(
                     view, 
                     "Choisissez la difficulté de l'ordinateur", 
@@ -74,7 +75,8 @@ public class MainMenuController {
                 if (difficultyChoice == JOptionPane.CLOSED_OPTION) return;
                 
                 String difficulty = (difficultyChoice == 0) ? "easy" : 
-                                   (difficultyChoice == 1) ? "medium" : "hard";
+                                   (difficultyChoice == 1) ? "medium" :
+                                   (difficultyChoice == 2) ? "hard" : "mcts";
                 
                 // Create the game
                 Game game = new Game(playerColor, difficulty);
@@ -0,0 +1,91 @@
+package engine;
+
+import java.util.Random;
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+
+// Banc d'essai fixe des élagages : pour chaque réglage, noeuds et temps pour atteindre
+// la même profondeur sur un jeu de positions reproductible, sur un seul fil.
+// Un élagage n'est activé par défaut dans Search que s'il gagne ici.
+// Usage : java engine.Bench [profondeur]
+public class Bench {
+    static final String[] FENS = {
+        "W:W31-50:B1-20",
+        "W:W27,28,30,31,32,33,34,35,36,37,38,39,40,41,43,44,45:B6-20,22,23",
+        "W:W32,33,34,38,39,43,44,48,K49:B6,9,12,13,17,18,19,24,27,28,29",
+        "W:W31,32,33,36,37,38,41,42,43,46,47,48:B8,9,13,14,17,18,19,22,23,24,26,27",
+        "W:WK3,38,40,K46:BK5,14,19,24,K41",
+    };
+    // Positions tirées au hasard après quelques demi-coups, avec des graines fixes
+    static final long[] SEEDS = {20, 31, 42};
+    static final int RANDOM_PLIES = 24;
+
+    static final String[] SETTINGS = {"aucun", "LMR", "futilité", "ProbCut", "LMR+futilité", "tous"};
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Board[] positions = positions();
+
+        // Échauffement du JIT avant de mesurer
+        run(positions, depth - 2, 5, null);
+
+        long[] baseline = new long[positions.length];
+        run(positions, depth, 0, baseline);
+        for (int setting = 0; setting < SETTINGS.length; setting++) {
+            run(positions, depth, setting, baseline);
+        }
+    }
+
+    static Board[] positions() {
+        Board[] positions = new Board[FENS.length + SEEDS.length];
+        for (int i = 0; i < FENS.length; i++) {
+            positions[i] = new Board();
+            positions[i].setFen(FENS[i]);
+        }
+        MoveList moves = new MoveList();
+        for (int i = 0; i < SEEDS.length; i++) {
+            Board board = SearchScaling.startPosition();
+            Random random = new Random(SEEDS[i]);
+            for (int ply = 0; ply < RANDOM_PLIES; ply++) {
+                board.generateLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            positions[FENS.length + i] = new Board(board);
+        }
+        return positions;
+    }
+
+    // Avec baseline vide, on note les coups trouvés ; sinon on compte ceux qui diffèrent
+    private static void run(Board[] positions, int depth, int setting, long[] baseline) {
+        long nodes = 0;
+        long millis = 0;
+        int changed = 0;
+        boolean record = baseline != null && setting == 0 && baseline[0] == PackedMove.NONE;
+        for (int p = 0; p < positions.length; p++) {
+            Search search = new Search();
+            search.setThreads(1);
+            search.setMaxDepth(depth);
+            search.setTimeLimits(Search.NO_TIME_LIMIT, Search.NO_TIME_LIMIT);
+            search.setLateMoveReductions(setting == 1 || setting == 4 || setting == 5);
+            search.setFutilityPruning(setting == 2 || setting == 4 || setting == 5);
+            search.setProbCut(setting == 3 || setting == 5);
+
+            long move = search.findBestMove(positions[p]);
+            nodes += search.getNodes() + search.getQuiescenceNodes();
+            millis += search.getElapsedMillis();
+            if (record) {
+                baseline[p] = move;
+            } else if (baseline != null && move != baseline[p]) {
+                changed++;
+            }
+        }
+        if (baseline != null && !record) {
+            System.out.printf("%-14s profondeur %d : %,12d noeuds %8d ms  %d coup(s) différent(s) sur %d%n",
+                              SETTINGS[setting], depth, nodes, millis, changed, positions.length);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package engine;
+
+// Jeton d'annulation partagé entre celui qui lance un travail du moteur et ce travail.
+// Un jeton enfant est annulé avec son parent, ou seul une fois son délai dépassé.
+public final class CancellationToken {
+    public static final CancellationToken NONE = new CancellationToken(null, 0);
+
+    private final CancellationToken parent;
+    private final long deadline;
+    private volatile boolean cancelled;
+
+    public CancellationToken() {
+        this(null, 0);
+    }
+
+    private CancellationToken(CancellationToken parent, long timeoutMillis) {
+        this.parent = parent;
+        this.deadline = timeoutMillis > 0 ? System.nanoTime() + timeoutMillis * 1_000_000L : 0;
+    }
+
+    // Jeton d'une tâche de ce travail ; timeoutMillis <= 0 : pas de délai propre
+    public CancellationToken child(long timeoutMillis) {
+        return new CancellationToken(this, timeoutMillis);
+    }
+
+    public void cancel() {
+        if (this != NONE) {
+            cancelled = true;
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled
+                || (deadline != 0 && System.nanoTime() - deadline > 0)
+                || (parent != null && parent.isCancelled());
+    }
+}
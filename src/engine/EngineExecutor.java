@@ -0,0 +1,99 @@
+package engine;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Tous les travaux de l'ordinateur passent par ici : recherches sur des fils
+// "moteur", petites attentes (animation des prises) sur des fils virtuels.
+// Chaque travail porte un jeton d'annulation ; shutdown() les annule tous,
+// attend la fin des tâches, puis interrompt celles qui restent.
+public final class EngineExecutor {
+    private static final Logger LOGGER = Logger.getLogger(EngineExecutor.class.getName());
+    private static final EngineExecutor INSTANCE = new EngineExecutor();
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService engine = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "moteur-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService waits = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("moteur-attente-", 1).factory());
+    // Jetons des tâches en cours, annulés à l'arrêt
+    private final Map<Object, CancellationToken> running = new ConcurrentHashMap<>();
+
+    private EngineExecutor() {
+    }
+
+    public static EngineExecutor get() {
+        return INSTANCE;
+    }
+
+    // Recherche ou autre calcul du moteur
+    public Future<?> submit(CancellationToken token, Runnable task) {
+        return submit(engine, token, task);
+    }
+
+    // Tâche qui passe surtout son temps à attendre
+    public Future<?> submitWait(CancellationToken token, Runnable task) {
+        return submit(waits, token, task);
+    }
+
+    // Après shutdown(), la tâche est simplement abandonnée
+    private Future<?> submit(ExecutorService executor, CancellationToken token, Runnable task) {
+        Object key = new Object();
+        running.put(key, token);
+        try {
+            return executor.submit(guard(key, token, task));
+        } catch (RejectedExecutionException e) {
+            running.remove(key);
+            token.cancel();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private Runnable guard(Object key, CancellationToken token, Runnable task) {
+        return () -> {
+            try {
+                if (!token.isCancelled()) {
+                    task.run();
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, null, e);
+            } finally {
+                running.remove(key);
+            }
+        };
+    }
+
+    public void shutdown(long timeoutMillis) {
+        for (CancellationToken token : running.values()) {
+            token.cancel();
+        }
+        engine.shutdown();
+        waits.shutdown();
+        try {
+            long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+            if (!engine.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                engine.shutdownNow();
+            }
+            long left = Math.max(0, deadline - System.nanoTime());
+            if (!waits.awaitTermination(left, TimeUnit.NANOSECONDS)) {
+                waits.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            engine.shutdownNow();
+            waits.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+import model.PieceColor;
+
+// Match entre l'alpha-beta (Search) et Monte-Carlo (MonteCarloSearch) pour comparer
+// leur force à temps de calcul égal. Pour chaque budget par coup, les deux moteurs
+// jouent des paires de parties depuis des ouvertures tirées avec des graines fixes,
+// chacun avec les blancs une fois. On relève le score de Monte-Carlo et le temps
+// processeur réellement consommé par coup par chaque moteur, fils d'aide compris :
+// les moteurs jouent l'un après l'autre, le temps du processus leur revient.
+// Usage : java engine.EngineMatch [paires par budget] [budgets en ms, séparés par des virgules] [fils]
+//         [parties simulées guidées : true/false]
+public class EngineMatch {
+    // Demi-coups joués au hasard avant que les moteurs prennent la main
+    private static final int OPENING_PLIES = 6;
+    // Au-delà, la partie est jugée sur les tables de finales ou sur l'évaluation
+    private static final int MAX_PLIES = 200;
+    private static final int ADJUDICATION_MARGIN = 2 * Evaluator.MAN_VALUE;
+
+    private static final com.sun.management.OperatingSystemMXBean SYSTEM =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private final Search alphaBeta = new Search();
+    private final MonteCarloSearch monteCarlo = new MonteCarloSearch();
+    private final Evaluator evaluator = new Evaluator();
+    private final Tablebase tablebase = Tablebase.getDefault();
+    // Temps processeur et coups de chaque moteur : [0] alpha-beta, [1] Monte-Carlo
+    private final long[] cpuNanos = new long[2];
+    private final int[] moves = new int[2];
+
+    public static void main(String[] args) {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        String[] budgets = (args.length > 1 ? args[1] : "100,400").split(",");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        boolean biased = args.length > 3 && Boolean.parseBoolean(args[3]);
+
+        EngineMatch match = new EngineMatch(threads);
+        match.monteCarlo.setBiasedPlayouts(biased);
+        System.out.printf("%d fil(s) par moteur, parties simulées %s, tables de finales : %s%n", threads,
+                          biased ? "guidées" : "au hasard",
+                          match.tablebase == null ? "aucune" : match.tablebase.getMaxPieces() + " pièces");
+        // Échauffement du JIT avant de mesurer
+        match.alphaBeta.setTimeBudget(50);
+        match.monteCarlo.setTimeBudget(50);
+        match.play(SearchScaling.startPosition(), 20, true);
+
+        for (String budget : budgets) {
+            match.run(pairs, Long.parseLong(budget.trim()));
+        }
+    }
+
+    private EngineMatch(int threads) {
+        alphaBeta.setThreads(threads);
+        alphaBeta.setTablebase(tablebase);
+        monteCarlo.setThreads(threads);
+        monteCarlo.setTablebase(tablebase);
+    }
+
+    private void run(int pairs, long budget) {
+        alphaBeta.setTimeBudget(budget);
+        monteCarlo.setTimeBudget(budget);
+        cpuNanos[0] = cpuNanos[1] = 0;
+        moves[0] = moves[1] = 0;
+        // Points de Monte-Carlo, en demi-points
+        int points = 0;
+        int wins = 0;
+        int draws = 0;
+        for (int pair = 0; pair < pairs; pair++) {
+            Board opening = opening(pair);
+            for (int side = 0; side < 2; side++) {
+                boolean monteCarloWhite = side == 1;
+                int result = play(opening, MAX_PLIES, monteCarloWhite);
+                points += result;
+                wins += result == 2 ? 1 : 0;
+                draws += result == 1 ? 1 : 0;
+            }
+        }
+        int games = 2 * pairs;
+        System.out.printf("budget %d ms : Monte-Carlo %d gain(s), %d nulle(s), %d perte(s) sur %d parties (%.1f %%)%n",
+                          budget, wins, draws, games - wins - draws, games, 50.0 * points / games);
+        System.out.printf("  temps processeur par coup : alpha-beta %.3f s, Monte-Carlo %.3f s%n",
+                          cpuNanos[0] / 1e9 / Math.max(1, moves[0]), cpuNanos[1] / 1e9 / Math.max(1, moves[1]));
+    }
+
+    // Position de départ et quelques demi-coups tirés avec une graine fixe
+    private static Board opening(long seed) {
+        Board board = SearchScaling.startPosition();
+        Random random = new Random(seed);
+        MoveList legal = new MoveList();
+        for (int ply = 0; ply < OPENING_PLIES; ply++) {
+            board.generateLegalMoves(legal);
+            if (legal.isEmpty()) {
+                break;
+            }
+            play(board, legal.get(random.nextInt(legal.size())));
+        }
+        return board;
+    }
+
+    // Résultat pour Monte-Carlo, en demi-points
+    private int play(Board opening, int maxPlies, boolean monteCarloWhite) {
+        Board board = new Board(opening);
+        MoveList legal = new MoveList();
+        for (int ply = 0; ply < maxPlies; ply++) {
+            boolean monteCarloToMove = board.isWhiteToMove() == monteCarloWhite;
+            board.generateLegalMoves(legal);
+            if (legal.isEmpty()) {
+                return monteCarloToMove ? 0 : 2;
+            }
+            if (tablebase != null && tablebase.probe(board) == TablebaseIndex.DRAW) {
+                return 1;
+            }
+            int engine = monteCarloToMove ? 1 : 0;
+            long cpu = SYSTEM.getProcessCpuTime();
+            long move = monteCarloToMove ? monteCarlo.findBestMove(board) : alphaBeta.findBestMove(board);
+            cpuNanos[engine] += SYSTEM.getProcessCpuTime() - cpu;
+            moves[engine]++;
+            if (move == PackedMove.NONE) {
+                move = legal.get(0);
+            }
+            play(board, move);
+        }
+        return adjudicate(board, monteCarloWhite);
+    }
+
+    // Partie trop longue : valeur exacte des tables, sinon deux pions d'avance pour gagner
+    private int adjudicate(Board board, boolean monteCarloWhite) {
+        int result;
+        int value = tablebase == null ? Tablebase.UNKNOWN : tablebase.probe(board);
+        if (value != Tablebase.UNKNOWN) {
+            result = TablebaseIndex.isWin(value) ? 2 : TablebaseIndex.isLoss(value) ? 0 : 1;
+        } else {
+            int score = evaluator.evaluate(board);
+            result = score >= ADJUDICATION_MARGIN ? 2 : score <= -ADJUDICATION_MARGIN ? 0 : 1;
+        }
+        // Résultat calculé pour le camp au trait
+        return (board.isWhiteToMove() == monteCarloWhite) ? result : 2 - result;
+    }
+
+    // Comme Game : le coup est joué en entier, puis le trait passe
+    private static void play(Board board, long move) {
+        PieceColor next = board.getSideToMove().opposite();
+        board.applyMove(move);
+        board.setSideToMove(next);
+    }
+}
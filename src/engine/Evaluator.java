@@ -0,0 +1,67 @@
+package engine;
+
+import model.Board;
+import model.PieceColor;
+import model.PieceSquare;
+import model.Squares;
+
+// Évaluation statique, du point de vue du camp au trait.
+// Le matériel, l'avance, le centre, la dernière rangée et les dames sur la grande
+// diagonale viennent de PieceSquare, dont Board tient la somme à jour : seuls le
+// trait et les pions échappés demandent un calcul à la feuille.
+public class Evaluator {
+    public static final int MAN_VALUE = PieceSquare.MAN_VALUE;
+    public static final int KING_VALUE = PieceSquare.KING_VALUE;
+    // Avoir le trait vaut un peu
+    private static final int TEMPO_BONUS = 5;
+    // Pion qu'aucune pièce ne peut plus arrêter, selon le nombre de rangées qui lui restent
+    private static final int[] RUNAWAY_BONUS = {0, 120, 80, 50};
+
+    // Cases devant un pion jusqu'à la promotion : [monte ? 0 : 1][case]
+    private static final long[][] CONE = new long[2][Squares.FIELDS];
+
+    static {
+        for (int field = 0; field < Squares.FIELDS; field++) {
+            if (!Squares.isValid(field)) continue;
+            int row = Squares.row(field);
+            int col = Squares.col(field);
+            for (int r = 0; r < Board.SIZE; r++) {
+                for (int c = 0; c < Board.SIZE; c++) {
+                    int target = Squares.field(r, c);
+                    if (target < 0) continue;
+                    if (r < row && Math.abs(c - col) <= row - r) {
+                        CONE[0][field] |= Squares.bit(target);
+                    }
+                    if (r > row && Math.abs(c - col) <= r - row) {
+                        CONE[1][field] |= Squares.bit(target);
+                    }
+                }
+            }
+        }
+    }
+
+    public int evaluate(Board board) {
+        int score = board.getPieceSquareScore()
+                + runaways(board, PieceColor.WHITE) - runaways(board, PieceColor.BLACK);
+        return (board.isWhiteToMove() ? score : -score) + TEMPO_BONUS;
+    }
+
+    // Pions à trois rangées ou moins de la promotion, avec la voie libre devant eux
+    private static int runaways(Board board, PieceColor color) {
+        boolean up = board.movesUp(color);
+        long men = color == PieceColor.WHITE ? board.getWhiteMen() : board.getBlackMen();
+        long occupied = ~board.getEmpty();
+        int score = 0;
+        for (int distance = 1; distance < RUNAWAY_BONUS.length; distance++) {
+            long candidates = men & Squares.rowMask(up ? distance : Board.SIZE - 1 - distance);
+            while (candidates != 0) {
+                int field = Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                if ((CONE[up ? 0 : 1][field] & occupied) == 0) {
+                    score += RUNAWAY_BONUS[distance];
+                }
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,72 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Fichier d'octets projeté en mémoire, par tranches de 1 Go (une projection ne
+// dépasse pas 2 Go) : les grandes tables restent sur disque, le système n'en
+// garde en mémoire que les pages utilisées.
+final class MappedBytes {
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private MappedBytes(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        this.size = size;
+        segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            segments[i] = channel.map(mode, start, Math.min(size - start, 1L << SEGMENT_BITS));
+        }
+    }
+
+    // Fichier de cette taille, mis à zéro
+    static MappedBytes create(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return new MappedBytes(channel, FileChannel.MapMode.READ_WRITE, size);
+        }
+    }
+
+    static MappedBytes open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new MappedBytes(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    int get(long index) {
+        return segments[(int) (index >>> SEGMENT_BITS)].get((int) (index & SEGMENT_MASK)) & 0xFF;
+    }
+
+    // Copie length octets à partir de start, même à cheval sur deux tranches
+    void get(long start, byte[] out, int length) {
+        int done = 0;
+        while (done < length) {
+            long index = start + done;
+            int offset = (int) (index & SEGMENT_MASK);
+            int count = (int) Math.min(length - done, (1L << SEGMENT_BITS) - offset);
+            segments[(int) (index >>> SEGMENT_BITS)].get(offset, out, done, count);
+            done += count;
+        }
+    }
+
+    void put(long index, int value) {
+        segments[(int) (index >>> SEGMENT_BITS)].put((int) (index & SEGMENT_MASK), (byte) value);
+    }
+
+    // Écrit sur disque les pages modifiées
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package engine;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+
+// Recherche Monte-Carlo (UCT), autre moteur que l'alpha-beta de Search : des parties
+// jouées au hasard depuis les feuilles d'un arbre qui grandit vers les coups qui
+// gagnent le plus souvent. Tous les fils travaillent sur le même arbre ; chacun
+// ajoute une perte virtuelle aux noeuds qu'il traverse, pour que les autres
+// explorent ailleurs en attendant son résultat. Le coup joué est le plus visité.
+public class MonteCarloSearch {
+    public static final int DEFAULT_MEMORY_MB = 64;
+    public static final long NO_PLAYOUT_LIMIT = Long.MAX_VALUE;
+    // Constante d'exploration pour des gains entre 0 et 1
+    public static final double DEFAULT_EXPLORATION = 0.7;
+    public static final int DEFAULT_VIRTUAL_LOSS = 3;
+
+    private static final Logger LOGGER = Logger.getLogger(MonteCarloSearch.class.getName());
+
+    private long timeLimitMillis = 1000;
+    private long maxPlayouts = NO_PLAYOUT_LIMIT;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int memoryMegabytes = DEFAULT_MEMORY_MB;
+    private double exploration = DEFAULT_EXPLORATION;
+    private int virtualLoss = DEFAULT_VIRTUAL_LOSS;
+    // Parties simulées un peu guidées plutôt qu'au hasard pur : sans gain mesuré par EngineMatch
+    private boolean biasedPlayouts = false;
+    private volatile Tablebase tablebase;
+
+    // Alloué à la première recherche : une partie qui n'utilise pas ce moteur ne paie rien
+    private MonteCarloTree tree;
+    private MonteCarloWorker[] workers = new MonteCarloWorker[0];
+    // Les fils d'aide passent par EngineExecutor, avec le jeton de la recherche
+    private final EngineExecutor executor = EngineExecutor.get();
+    private final MoveList rootMoves = new MoveList();
+    private final long[] rootChildren = new long[MoveList.CAPACITY];
+
+    private volatile long deadline;
+    private volatile boolean stopped;
+    // Enfant du jeton de l'appelant, partagé avec les fils d'aide
+    private volatile CancellationToken token = CancellationToken.NONE;
+    private long elapsedNanos;
+    private double bestWinRate;
+
+    public void setTimeBudget(long millis) {
+        this.timeLimitMillis = millis;
+    }
+
+    // Nombre total de parties simulées par coup, pour comparer à effort égal
+    public void setMaxPlayouts(long playouts) {
+        this.maxPlayouts = Math.max(1, playouts);
+    }
+
+    public synchronized void setThreads(int count) {
+        threads = Math.max(1, count);
+    }
+
+    // Mémoire de l'arbre, en mégaoctets ; une fois pleine, les feuilles ne sont plus développées
+    public synchronized void setMemory(int megabytes) {
+        if (megabytes != memoryMegabytes) {
+            memoryMegabytes = megabytes;
+            tree = null;
+            workers = new MonteCarloWorker[0];
+        }
+    }
+
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    public void setVirtualLoss(int visits) {
+        this.virtualLoss = Math.max(0, visits);
+    }
+
+    public void setBiasedPlayouts(boolean enabled) {
+        this.biasedPlayouts = enabled;
+    }
+
+    // Les parties simulées s'arrêtent dans les tables de finales, sur le résultat exact
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    Tablebase getTablebase() { return tablebase; }
+    boolean isBiasedPlayouts() { return biasedPlayouts; }
+    int getVirtualLoss() { return virtualLoss; }
+    double getExploration() { return exploration; }
+
+    public long getTimeBudget() { return timeLimitMillis; }
+    public int getThreads() { return threads; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000L; }
+    // Part des points gagnés par le coup choisi dans ses parties simulées
+    public double getBestWinRate() { return bestWinRate; }
+
+    public long getPlayouts() {
+        long playouts = 0;
+        for (MonteCarloWorker worker : workers) {
+            playouts += worker.getPlayouts();
+        }
+        return playouts;
+    }
+
+    // Demi-coups joués, dans l'arbre et dans les parties simulées
+    public long getPlies() {
+        long plies = 0;
+        for (MonteCarloWorker worker : workers) {
+            plies += worker.getPlies();
+        }
+        return plies;
+    }
+
+    public long getPlayoutsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getPlayouts() * 1_000_000_000L / elapsedNanos;
+    }
+
+    public int getTreeSize() {
+        return tree == null ? 0 : tree.size();
+    }
+
+    // Meilleur coup pour le camp au trait, ou PackedMove.NONE s'il n'y en a pas
+    public long findBestMove(Board position) {
+        return findBestMove(position, CancellationToken.NONE);
+    }
+
+    public synchronized long findBestMove(Board position, CancellationToken token) {
+        long start = System.nanoTime();
+        stopped = false;
+        this.token = token.child(0);
+        deadline = start + timeLimitMillis * 1_000_000L;
+        bestWinRate = 0;
+        prepareWorkers(position);
+
+        Board root = new Board(position);
+        root.generateLegalMoves(rootMoves);
+        if (rootMoves.isEmpty()) {
+            return PackedMove.NONE;
+        }
+        // Coup forcé : inutile de chercher
+        if (rootMoves.size() == 1) {
+            return rootMoves.get(0);
+        }
+        Tablebase tables = tablebase;
+        if (tables != null && tables.covers(root)) {
+            long move = tables.bestMove(root);
+            if (move != PackedMove.NONE) {
+                return move;
+            }
+        }
+
+        // La racine est développée d'avance : les fils partent tous de ses coups
+        tree.clear();
+        for (int i = 0; i < rootMoves.size(); i++) {
+            rootChildren[i] = rootMoves.get(i);
+        }
+        tree.tryLock(MonteCarloTree.ROOT);
+        tree.expand(MonteCarloTree.ROOT, rootChildren, rootMoves.size());
+
+        // Le nombre de parties est partagé entre les fils
+        long share = maxPlayouts == NO_PLAYOUT_LIMIT ? NO_PLAYOUT_LIMIT : (maxPlayouts + threads - 1) / threads;
+        Future<?>[] tasks = new Future<?>[workers.length - 1];
+        for (int i = 1; i < workers.length; i++) {
+            MonteCarloWorker worker = workers[i];
+            tasks[i - 1] = executor.submit(this.token, () -> worker.run(share));
+        }
+        workers[0].run(share);
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.SEVERE, null, e.getCause());
+            }
+        }
+        elapsedNanos = System.nanoTime() - start;
+
+        long bestMove = rootMoves.get(0);
+        int bestVisits = -1;
+        int first = tree.firstChild(MonteCarloTree.ROOT);
+        for (int child = first; child < first + tree.childCount(MonteCarloTree.ROOT); child++) {
+            if (tree.visits(child) > bestVisits) {
+                bestVisits = tree.visits(child);
+                bestMove = tree.move(child);
+                bestWinRate = bestVisits == 0 ? 0 : tree.rewards(child) / (2.0 * bestVisits);
+            }
+        }
+        LOGGER.log(Level.FINE, "{0} parties simulées, {1} noeuds, {2} ms, coup {3} gagnant à {4}",
+                   new Object[]{getPlayouts(), tree.size(), getElapsedMillis(),
+                                PackedMove.toNotation(bestMove), bestWinRate});
+        return bestMove;
+    }
+
+    // Arrête la recherche en cours ; elle rend le coup le plus visité jusque-là
+    public void stop() {
+        stopped = true;
+    }
+
+    private void prepareWorkers(Board position) {
+        if (tree == null) {
+            tree = new MonteCarloTree(memoryMegabytes);
+        }
+        if (workers.length != threads) {
+            workers = new MonteCarloWorker[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new MonteCarloWorker(this, tree, System.nanoTime() + i * 0x9E3779B97F4A7C15L);
+            }
+        }
+        for (MonteCarloWorker worker : workers) {
+            worker.reset(position);
+        }
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    void checkTime() {
+        if (System.nanoTime() > deadline || token.isCancelled()) {
+            stopped = true;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.PackedMove;
+
+// Arbre de MonteCarloSearch, partagé par tous les fils et rangé dans des tableaux
+// de types primitifs alloués une fois : les fils d'un noeud sont contigus.
+// Un seul fil développe un noeud (UNEXPANDED -> EXPANDING -> premier fils) ;
+// les visites et les gains sont ajoutés sans verrou. Les gains sont comptés en
+// demi-points (2 gagné, 1 nul, 0 perdu) pour le camp qui a joué le coup du noeud.
+final class MonteCarloTree {
+    static final int ROOT = 0;
+    static final int UNEXPANDED = -1;
+    static final int EXPANDING = -2;
+
+    // Coup, premier fils, nombre de fils, visites et gains
+    private static final int BYTES_PER_NODE = 8 + 4 + 2 + 4 + 4;
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int capacity;
+    private final long[] moves;
+    private final int[] firstChild;
+    private final short[] childCount;
+    private final int[] visits;
+    private final int[] rewards;
+    private final AtomicInteger size = new AtomicInteger();
+    // Plus de place : les feuilles ne sont plus développées
+    private volatile boolean full;
+
+    MonteCarloTree(int megabytes) {
+        capacity = (int) Math.min(Integer.MAX_VALUE - 8, (long) megabytes * 1024 * 1024 / BYTES_PER_NODE);
+        moves = new long[capacity];
+        firstChild = new int[capacity];
+        childCount = new short[capacity];
+        visits = new int[capacity];
+        rewards = new int[capacity];
+    }
+
+    // Arbre réduit à la racine, pas encore développée
+    void clear() {
+        init(ROOT, PackedMove.NONE);
+        size.set(1);
+        full = false;
+    }
+
+    int size() { return size.get(); }
+    boolean isFull() { return full; }
+
+    long move(int node) { return moves[node]; }
+    int childCount(int node) { return childCount[node]; }
+    int visits(int node) { return (int) INTS.getOpaque(visits, node); }
+    int rewards(int node) { return (int) INTS.getOpaque(rewards, node); }
+
+    // Premier fils, ou UNEXPANDED / EXPANDING ; lu après les fils qu'il publie
+    int firstChild(int node) {
+        return (int) INTS.getAcquire(firstChild, node);
+    }
+
+    // Le fil qui réussit doit ensuite appeler expand() ou unlock()
+    boolean tryLock(int node) {
+        return INTS.compareAndSet(firstChild, node, UNEXPANDED, EXPANDING);
+    }
+
+    void unlock(int node) {
+        INTS.setRelease(firstChild, node, UNEXPANDED);
+    }
+
+    // Ajoute les fils d'un noeud verrouillé ; false (et noeud déverrouillé) si l'arbre est plein.
+    // Sans coup, le noeud est développé sans fils : c'est une fin de partie.
+    boolean expand(int node, long[] childMoves, int count) {
+        int first;
+        do {
+            first = size.get();
+            if (first + count > capacity) {
+                full = true;
+                unlock(node);
+                return false;
+            }
+        } while (!size.compareAndSet(first, first + count));
+        for (int i = 0; i < count; i++) {
+            init(first + i, childMoves[i]);
+        }
+        childCount[node] = (short) count;
+        INTS.setRelease(firstChild, node, first);
+        return true;
+    }
+
+    // Perte virtuelle : des visites sans gain, retirées au retour de la partie simulée
+    void addVisits(int node, int count) {
+        INTS.getAndAdd(visits, node, count);
+    }
+
+    void update(int node, int reward, int virtualLoss) {
+        INTS.getAndAdd(visits, node, 1 - virtualLoss);
+        INTS.getAndAdd(rewards, node, reward);
+    }
+
+    private void init(int node, long move) {
+        moves[node] = move;
+        childCount[node] = 0;
+        visits[node] = 0;
+        rewards[node] = 0;
+        firstChild[node] = UNEXPANDED;
+    }
+}
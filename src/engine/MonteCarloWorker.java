@@ -0,0 +1,209 @@
+package engine;
+
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+
+// État propre à un fil de MonteCarloSearch : sa copie du plateau, ses tampons
+// de coups et son générateur aléatoire. Une partie simulée n'alloue rien : les
+// coups sont joués puis annulés sur le même plateau.
+final class MonteCarloWorker {
+    // Visites d'une feuille avant de la développer
+    private static final int EXPAND_VISITS = 2;
+    // Au-delà, la partie simulée est jugée sur l'évaluation
+    private static final int MAX_PLIES = 160;
+    private static final int MAX_TREE_DEPTH = 64;
+    // Deux pions d'avance suffisent pour compter la partie simulée comme gagnée
+    private static final int ADJUDICATION_MARGIN = 2 * Evaluator.MAN_VALUE;
+    private static final int WIN = 2;
+    private static final int DRAW = 1;
+    private static final int LOSS = 0;
+
+    private final MonteCarloSearch search;
+    private final MonteCarloTree tree;
+    private final Evaluator evaluator = new Evaluator();
+    private final MoveList moves = new MoveList();
+    private final long[] childMoves = new long[MoveList.CAPACITY];
+    private final long[] played = new long[Board.MAX_PLY];
+    private final int[] path = new int[MAX_TREE_DEPTH + 1];
+    private Board board;
+    private Tablebase tablebase;
+    private boolean biased;
+    private int virtualLoss;
+    private double exploration;
+    private long seed;
+    private long playouts;
+    private long plies;
+
+    MonteCarloWorker(MonteCarloSearch search, MonteCarloTree tree, long seed) {
+        this.search = search;
+        this.tree = tree;
+        this.seed = seed | 1;
+    }
+
+    void reset(Board position) {
+        board = new Board(position);
+        tablebase = search.getTablebase();
+        biased = search.isBiasedPlayouts();
+        virtualLoss = search.getVirtualLoss();
+        exploration = search.getExploration();
+        playouts = 0;
+        plies = 0;
+    }
+
+    long getPlayouts() { return playouts; }
+    // Demi-coups joués dans l'arbre et dans les parties simulées
+    long getPlies() { return plies; }
+
+    // Parties simulées jusqu'à l'arrêt de la recherche ou jusqu'à limit
+    void run(long limit) {
+        while (playouts < limit && !search.isStopped()) {
+            iterate();
+            playouts++;
+            if ((playouts & 63) == 0) {
+                search.checkTime();
+            }
+        }
+    }
+
+    // Sélection, développement, partie simulée, puis remontée du résultat
+    private void iterate() {
+        int node = MonteCarloTree.ROOT;
+        int depth = 0;
+        path[0] = node;
+        tree.addVisits(node, virtualLoss);
+        int first;
+        while ((first = tree.firstChild(node)) >= 0 && tree.childCount(node) > 0 && depth < MAX_TREE_DEPTH) {
+            node = select(node, first, tree.childCount(node));
+            tree.addVisits(node, virtualLoss);
+            board.makeMove(tree.move(node));
+            path[++depth] = node;
+        }
+
+        // Le résultat est d'abord compté pour le camp au trait dans la feuille
+        int result;
+        if (first >= 0 && tree.childCount(node) == 0) {
+            result = LOSS;
+        } else if (first == MonteCarloTree.UNEXPANDED && tree.visits(node) - virtualLoss >= EXPAND_VISITS
+                   && !tree.isFull() && tree.tryLock(node) && expand(node)) {
+            if (tree.childCount(node) == 0) {
+                result = LOSS;
+            } else {
+                int child = tree.firstChild(node) + nextInt(tree.childCount(node));
+                tree.addVisits(child, virtualLoss);
+                board.makeMove(tree.move(child));
+                path[++depth] = child;
+                result = playout(depth);
+            }
+        } else {
+            result = playout(depth);
+        }
+
+        int reward = WIN - result;
+        for (int i = depth; i >= 0; i--) {
+            tree.update(path[i], reward, virtualLoss);
+            reward = WIN - reward;
+        }
+        for (int i = depth; i > 0; i--) {
+            board.unmakeMove(tree.move(path[i]));
+        }
+        plies += depth;
+    }
+
+    // UCT : gain moyen plus un bonus d'exploration ; un fils jamais visité passe d'abord
+    private int select(int node, int first, int count) {
+        double logVisits = Math.log(Math.max(1, tree.visits(node)));
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + count; child++) {
+            int visits = tree.visits(child);
+            if (visits == 0) {
+                return child;
+            }
+            double value = tree.rewards(child) / (2.0 * visits) + exploration * Math.sqrt(logVisits / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private boolean expand(int node) {
+        board.generateLegalMoves(moves);
+        int count = moves.size();
+        for (int i = 0; i < count; i++) {
+            childMoves[i] = moves.get(i);
+        }
+        return tree.expand(node, childMoves, count);
+    }
+
+    // Partie au hasard depuis la position du plateau ; résultat pour le camp qui y a le trait
+    private int playout(int treeDepth) {
+        int length = 0;
+        int result;
+        while (true) {
+            if (tablebase != null && tablebase.covers(board)) {
+                int value = tablebase.probe(board);
+                if (value != Tablebase.UNKNOWN) {
+                    result = TablebaseIndex.isWin(value) ? WIN : TablebaseIndex.isLoss(value) ? LOSS : DRAW;
+                    break;
+                }
+            }
+            board.generateLegalMoves(moves);
+            if (moves.isEmpty()) {
+                result = LOSS;
+                break;
+            }
+            if (treeDepth + length >= MAX_PLIES) {
+                int score = evaluator.evaluate(board);
+                result = score >= ADJUDICATION_MARGIN ? WIN : score <= -ADJUDICATION_MARGIN ? LOSS : DRAW;
+                break;
+            }
+            long move = biased ? chooseBiased() : moves.get(nextInt(moves.size()));
+            board.makeMove(move);
+            played[length++] = move;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            board.unmakeMove(played[i]);
+        }
+        plies += length;
+        // Le camp au trait change à chaque demi-coup joué
+        return (length & 1) == 0 ? result : WIN - result;
+    }
+
+    // Parties un peu guidées : une promotion d'abord, sinon le meilleur de deux coups
+    // tirés au hasard d'après les valeurs des cases
+    private long chooseBiased() {
+        int count = moves.size();
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.isPromotion(moves.get(i))) {
+                return moves.get(i);
+            }
+        }
+        long first = moves.get(nextInt(count));
+        if (count == 1) {
+            return first;
+        }
+        long second = moves.get(nextInt(count));
+        return gain(second) > gain(first) ? second : first;
+    }
+
+    // Gain des valeurs des cases pour le camp au trait
+    private int gain(long move) {
+        int before = board.getPieceSquareScore();
+        board.makeMove(move);
+        int after = board.getPieceSquareScore();
+        board.unmakeMove(move);
+        return board.isWhiteToMove() ? after - before : before - after;
+    }
+
+    // xorshift64* : rapide et sans allocation
+    private int nextInt(int bound) {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        long random = (seed * 0x2545F4914F6CDD1DL) >>> 32;
+        return (int) ((random * bound) >>> 32);
+    }
+}
@@ -0,0 +1,161 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+import model.PieceColor;
+
+// Bibliothèque d'ouvertures : un fichier d'entrées de 24 octets (clé Zobrist,
+// coup, poids, note), triées par clé puis par poids décroissant, lu directement
+// par projection en mémoire et parcouru par recherche dichotomique.
+// Les positions sont enregistrées avec les blancs qui montent ; quand ils
+// descendent, on cherche la position retournée d'un demi-tour.
+public class OpeningBook {
+    public static final String DEFAULT_FILE = "data/ouvertures.bin";
+    static final int ENTRY_SIZE = 24;
+
+    private static final Logger LOGGER = Logger.getLogger(OpeningBook.class.getName());
+
+    private final MappedByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer entries) {
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_SIZE;
+    }
+
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // La projection reste valable après la fermeture du canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return new OpeningBook(buffer);
+        }
+    }
+
+    // Bibliothèque livrée avec le jeu, ou null si elle est absente ou illisible
+    public static OpeningBook openDefault() {
+        Path file = Paths.get(DEFAULT_FILE);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return open(file);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "bibliothèque d'ouvertures illisible : " + file, e);
+            return null;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Un coup de la bibliothèque pour cette position, tiré au hasard selon les poids,
+    // ou PackedMove.NONE si la position n'y est pas
+    public long probe(Board position, Random random) {
+        boolean mirrored = !position.movesUp(PieceColor.WHITE);
+        Board key = mirrored ? position.mirrored() : position;
+        int first = findFirst(key.getHash());
+        if (first < 0) {
+            return PackedMove.NONE;
+        }
+
+        // Les entrées sont vérifiées contre les coups légaux : une collision de clé ne donne rien
+        MoveList legal = new MoveList();
+        key.generateLegalMoves(legal);
+        long[] candidates = new long[legal.size()];
+        int[] weights = new int[legal.size()];
+        int count = 0;
+        long total = 0;
+        for (int i = first; i < size && hash(i) == key.getHash(); i++) {
+            long move = move(i);
+            if (weight(i) > 0 && contains(legal, move)) {
+                candidates[count] = move;
+                weights[count] = weight(i);
+                total += weight(i);
+                count++;
+            }
+        }
+        if (count == 0) {
+            return PackedMove.NONE;
+        }
+
+        long pick = (long) (random.nextDouble() * total);
+        int chosen = 0;
+        while (pick >= weights[chosen]) {
+            pick -= weights[chosen];
+            chosen++;
+        }
+        return mirrored ? PackedMove.mirror(candidates[chosen]) : candidates[chosen];
+    }
+
+    // Première entrée de cette clé, -1 s'il n'y en a pas
+    private int findFirst(long hash) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(hash(middle), hash) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < size && hash(low) == hash ? low : -1;
+    }
+
+    private static boolean contains(MoveList moves, long move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long hash(int index) { return entries.getLong(index * ENTRY_SIZE); }
+    private long move(int index) { return entries.getLong(index * ENTRY_SIZE + 8); }
+    private int weight(int index) { return entries.getInt(index * ENTRY_SIZE + 16); }
+
+    // Une entrée du fichier, avant écriture
+    public record Entry(long hash, long move, int weight, int score) {
+    }
+
+    // Écrit les entrées dans l'ordre attendu par probe()
+    public static void write(Path file, List<Entry> entries) throws IOException {
+        Entry[] sorted = entries.toArray(new Entry[0]);
+        Arrays.sort(sorted, Comparator.comparing(Entry::hash, Long::compareUnsigned)
+                .thenComparing(Comparator.comparingInt(Entry::weight).reversed()));
+        ByteBuffer buffer = ByteBuffer.allocate(sorted.length * ENTRY_SIZE).order(ByteOrder.BIG_ENDIAN);
+        for (Entry entry : sorted) {
+            buffer.putLong(entry.hash()).putLong(entry.move()).putInt(entry.weight()).putInt(entry.score());
+        }
+        buffer.flip();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+
+// Construit la bibliothèque d'ouvertures : depuis la position de départ, chaque coup
+// est noté par une recherche à profondeur fixe, et les meilleurs, à une marge près
+// du premier, sont gardés et développés à leur tour. Les transpositions ne sont
+// développées qu'une fois.
+// Usage : java engine.OpeningBookBuilder <fichier> [demi-coups] [coups par position] [profondeur]
+public class OpeningBookBuilder {
+    // Au-delà d'un tiers de pion de retard sur le meilleur, le coup n'entre pas
+    private static final int MARGIN = 30;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage : java engine.OpeningBookBuilder <fichier> [demi-coups] "
+                               + "[coups par position] [profondeur]");
+            return;
+        }
+        Path file = Paths.get(args[0]);
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int width = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+
+        Search search = new Search();
+        search.setMaxDepth(depth);
+        search.setTimeLimits(Search.NO_TIME_LIMIT, Search.NO_TIME_LIMIT);
+
+        List<OpeningBook.Entry> entries = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        // Les blancs montent : c'est le sens dans lequel la bibliothèque est enregistrée
+        Deque<Board> frontier = new ArrayDeque<>();
+        frontier.add(SearchScaling.startPosition());
+        for (int ply = 0; ply < plies && !frontier.isEmpty(); ply++) {
+            Deque<Board> next = new ArrayDeque<>();
+            for (Board position : frontier) {
+                if (seen.add(position.getHash())) {
+                    expand(search, position, width, entries, next);
+                }
+            }
+            System.out.printf("demi-coup %d : %d position(s), %d entrée(s)%n", ply + 1, seen.size(), entries.size());
+            frontier = next;
+        }
+
+        OpeningBook.write(file, entries);
+        System.out.printf("%s : %d entrée(s)%n", file, entries.size());
+    }
+
+    // Note chaque coup de la position et garde les meilleurs
+    private static void expand(Search search, Board position, int width,
+                               List<OpeningBook.Entry> entries, Deque<Board> next) {
+        MoveList moves = new MoveList();
+        position.generateLegalMoves(moves);
+        if (moves.size() < 2) {
+            // Rien à choisir : la position suivante est développée directement
+            if (moves.size() == 1) {
+                Board child = new Board(position);
+                child.makeMove(moves.get(0));
+                next.add(child);
+            }
+            return;
+        }
+
+        int[] scores = new int[moves.size()];
+        for (int i = 0; i < moves.size(); i++) {
+            Board child = new Board(position);
+            child.makeMove(moves.get(i));
+            scores[i] = -score(search, child);
+        }
+
+        int best = Integer.MIN_VALUE;
+        for (int score : scores) {
+            best = Math.max(best, score);
+        }
+        for (int kept = 0; kept < width; kept++) {
+            int index = -1;
+            for (int i = 0; i < moves.size(); i++) {
+                if (scores[i] != Integer.MIN_VALUE && (index < 0 || scores[i] > scores[index])) {
+                    index = i;
+                }
+            }
+            if (index < 0 || scores[index] < best - MARGIN) {
+                break;
+            }
+            // Le meilleur coup pèse plus, ceux à la limite de la marge à peine
+            int weight = MARGIN + 1 - (best - scores[index]);
+            entries.add(new OpeningBook.Entry(position.getHash(), moves.get(index), weight, scores[index]));
+            Board child = new Board(position);
+            child.makeMove(moves.get(index));
+            next.add(child);
+            scores[index] = Integer.MIN_VALUE;
+        }
+    }
+
+    // Note pour le camp au trait ; les coups forcés, que Search ne cherche pas, sont joués d'abord
+    private static int score(Search search, Board position) {
+        Board board = new Board(position);
+        MoveList moves = new MoveList();
+        int sign = 1;
+        board.generateLegalMoves(moves);
+        while (moves.size() == 1) {
+            board.makeMove(moves.get(0));
+            sign = -sign;
+            board.generateLegalMoves(moves);
+        }
+        if (moves.isEmpty()) {
+            return -sign * Search.WIN;
+        }
+        long move = search.findBestMove(board);
+        return move == PackedMove.NONE ? -sign * Search.WIN : sign * search.getBestScore();
+    }
+}
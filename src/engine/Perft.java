@@ -0,0 +1,123 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+import model.PieceColor;
+
+// Compte les positions terminales à la profondeur N (perft) pour mesurer la vitesse
+// du générateur de coups et de makeMove/unmakeMove, et vérifier les règles.
+// Usage : java engine.Perft <profondeur> [fen] [--divide] [--threads N]
+// Depuis la position de départ : 9, 81, 658, 4265, 27117, 167140, 1049442, 6483961...
+public class Perft {
+    private final Board board;
+    private final MoveList[] moves = MoveList.perPly(Board.MAX_PLY);
+
+    public Perft(Board position) {
+        this.board = new Board(position);
+    }
+
+    public long count(int depth) {
+        return count(depth, 0);
+    }
+
+    private long count(int depth, int ply) {
+        MoveList list = moves[ply];
+        board.generateLegalMoves(list);
+        if (depth <= 1) {
+            return depth == 1 ? list.size() : 1;
+        }
+        long nodes = 0;
+        for (int i = 0; i < list.size(); i++) {
+            long move = list.get(i);
+            board.makeMove(move);
+            nodes += count(depth - 1, ply + 1);
+            board.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    // Perft de chaque coup de la racine, réparti sur plusieurs fils si threads > 1
+    public static long[] divide(Board position, int depth, int threads) throws InterruptedException {
+        MoveList rootMoves = new MoveList();
+        new Board(position).generateLegalMoves(rootMoves);
+        long[] counts = new long[rootMoves.size()];
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<Long>> tasks = new ArrayList<>();
+            for (int i = 0; i < rootMoves.size(); i++) {
+                long move = rootMoves.get(i);
+                tasks.add(pool.submit(() -> {
+                    Board child = new Board(position);
+                    child.makeMove(move);
+                    return new Perft(child).count(depth - 1);
+                }));
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                counts[i] = tasks.get(i).get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return counts;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.out.println("Usage : java engine.Perft <profondeur> [fen] [--divide] [--threads N]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        String fen = null;
+        boolean showDivide = false;
+        int threads = 1;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--divide")) {
+                showDivide = true;
+            } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                fen = args[i];
+            }
+        }
+
+        Board board = new Board();
+        if (fen == null) {
+            board.initializeBoard(PieceColor.WHITE);
+        } else {
+            board.setFen(fen);
+        }
+        System.out.println(board.toFen());
+
+        for (int d = showDivide ? depth : 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long nodes;
+            if (!showDivide && (d == 1 || threads == 1)) {
+                nodes = new Perft(board).count(d);
+            } else {
+                MoveList rootMoves = new MoveList();
+                new Board(board).generateLegalMoves(rootMoves);
+                long[] counts = divide(board, d, threads);
+                nodes = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    nodes += counts[i];
+                    if (showDivide) {
+                        System.out.println(PackedMove.toNotation(rootMoves.get(i)) + " : " + counts[i]);
+                    }
+                }
+            }
+            long nanos = Math.max(1, System.nanoTime() - start);
+            System.out.printf("perft(%d) = %d  (%d ms, %d noeuds/s)%n",
+                              d, nodes, nanos / 1_000_000L, nodes * 1_000_000_000L / nanos);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package engine;
+
+import java.util.Arrays;
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+
+// Recherche par nombres de preuve (PN²) : prouve ou réfute que le camp au trait
+// gagne. L'arbre est développé toujours au noeud le plus prometteur, celui qui
+// demande le moins de positions pour conclure ; les rafles forcées, où l'adversaire
+// n'a qu'un coup, se prouvent ainsi bien plus vite qu'en alpha-beta.
+// Chaque feuille développée reçoit ses nombres d'une petite recherche PN du second
+// niveau, dont seuls les fils directs sont gardés.
+// Les noeuds sont rangés dans des tableaux de types primitifs, dont la taille
+// est bornée par la mémoire donnée : au-delà, la réponse reste inconnue.
+public class ProofNumberSearch {
+    public enum Result { PROVEN, DISPROVEN, UNKNOWN }
+
+    public static final int DEFAULT_MEMORY_MB = 64;
+    // Au-delà, la partie est tenue pour non gagnée (les dames peuvent tourner sans fin)
+    public static final int DEFAULT_MAX_PLY = 120;
+
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+    // Nombres de preuve et de réfutation, parent, premier fils, nombre de fils et coup
+    private static final int BYTES_PER_NODE = 4 + 4 + 4 + 4 + 2 + 8;
+    private static final int INITIAL_NODES = 1 << 16;
+    // Part de la mémoire laissée au second niveau
+    private static final int SECOND_LEVEL_SHARE = 8;
+    // Taille des recherches du second niveau : une fraction de l'arbre principal, bornée
+    private static final int SECOND_LEVEL_MIN_NODES = 100;
+    private static final int SECOND_LEVEL_MAX_NODES = 10_000;
+    private static final int SECOND_LEVEL_DIVISOR = 32;
+
+    private final int capacity;
+    private int[] proof;
+    private int[] disproof;
+    private int[] parent;
+    private int[] firstChild;
+    private short[] childCount;
+    private long[] moves;
+    private int size;
+    // Recherche des feuilles ; null au second niveau
+    private final ProofNumberSearch secondLevel;
+
+    private Tablebase tablebase;
+    private int maxPly = DEFAULT_MAX_PLY;
+    private CancellationToken token = CancellationToken.NONE;
+    private long nodes;
+    private long winningMove = PackedMove.NONE;
+
+    private final MoveList[] lists = MoveList.perPly(Board.MAX_PLY);
+    private final MoveList leafMoves = new MoveList();
+    private final long[] path = new long[Board.MAX_PLY];
+
+    public ProofNumberSearch() {
+        this(DEFAULT_MEMORY_MB);
+    }
+
+    public ProofNumberSearch(int memoryMegabytes) {
+        long bytes = (long) memoryMegabytes * 1024 * 1024;
+        long second = bytes / SECOND_LEVEL_SHARE;
+        this.capacity = (int) Math.min(Integer.MAX_VALUE - 8, (bytes - second) / BYTES_PER_NODE);
+        this.secondLevel = new ProofNumberSearch((int) Math.min(Integer.MAX_VALUE - 8, second / BYTES_PER_NODE),
+                                                 null);
+        allocate(Math.min(capacity, INITIAL_NODES));
+    }
+
+    private ProofNumberSearch(int capacity, ProofNumberSearch secondLevel) {
+        this.capacity = capacity;
+        this.secondLevel = secondLevel;
+        allocate(Math.min(capacity, INITIAL_NODES));
+    }
+
+    // Les positions des tables de finales sont résolues sans les développer
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+        if (secondLevel != null) {
+            secondLevel.setTablebase(tablebase);
+        }
+    }
+
+    public void setMaxPly(int plies) {
+        this.maxPly = Math.max(1, Math.min(plies, Board.MAX_PLY - 1));
+        if (secondLevel != null) {
+            secondLevel.setMaxPly(plies);
+        }
+    }
+
+    // Noeuds développés par la dernière recherche, second niveau compris
+    public long getNodes() { return nodes; }
+
+    // Coup gagnant trouvé par la dernière recherche prouvée, sinon PackedMove.NONE
+    public long getWinningMove() { return winningMove; }
+
+    // La position est-elle gagnée pour le camp au trait ? Faux si c'est réfuté ou inconnu.
+    public boolean isWon(Board position, CancellationToken token) {
+        return solve(position, token) == Result.PROVEN;
+    }
+
+    public synchronized Result solve(Board position, CancellationToken token) {
+        this.token = token;
+        nodes = 0;
+        winningMove = PackedMove.NONE;
+        if (secondLevel != null) {
+            secondLevel.token = token;
+            secondLevel.nodes = 0;
+        }
+        Board board = new Board(position);
+        search(board, true, 0, capacity);
+        if (secondLevel != null) {
+            nodes += secondLevel.nodes;
+        }
+
+        if (proof[0] == 0) {
+            for (int i = 0; i < childCount[0]; i++) {
+                if (proof[firstChild[0] + i] == 0) {
+                    winningMove = moves[firstChild[0] + i];
+                    break;
+                }
+            }
+            if (winningMove == PackedMove.NONE && tablebase != null) {
+                winningMove = tablebase.bestMove(board);
+            }
+            return Result.PROVEN;
+        }
+        return disproof[0] == 0 ? Result.DISPROVEN : Result.UNKNOWN;
+    }
+
+    // Recherche depuis board, le camp au trait étant l'attaquant ou non ; s'arrête quand
+    // la racine est résolue ou que l'arbre atteint budget noeuds. Le plateau est rendu intact.
+    private void search(Board board, boolean rootAttacker, int rootPly, int budget) {
+        size = 0;
+        newNode(-1, PackedMove.NONE);
+        evaluate(0, board, rootAttacker, rootPly);
+        int depth = 0;
+        while (proof[0] != 0 && disproof[0] != 0 && size < budget && !token.isCancelled()) {
+            // Descente vers le noeud le plus prometteur
+            int node = 0;
+            boolean attacker = rootAttacker;
+            while (firstChild[node] >= 0) {
+                node = select(node, attacker);
+                board.makeMove(moves[node]);
+                path[depth++] = moves[node];
+                attacker = !attacker;
+            }
+            boolean expanded = expand(node, board, attacker, rootPly + depth, depth, budget);
+            // Remontée jusqu'à la racine en recalculant les nombres
+            while (true) {
+                if (firstChild[node] >= 0) {
+                    update(node, attacker);
+                }
+                if (node == 0) {
+                    break;
+                }
+                board.unmakeMove(path[--depth]);
+                node = parent[node];
+                attacker = !attacker;
+            }
+            if (!expanded) {
+                break;
+            }
+        }
+    }
+
+    // Fils qui fait le plus avancer : moins de preuves chez l'attaquant, de réfutations chez le défenseur
+    private int select(int node, boolean attacker) {
+        int first = firstChild[node];
+        int best = first;
+        for (int child = first + 1; child < first + childCount[node]; child++) {
+            if (attacker ? proof[child] < proof[best] : disproof[child] < disproof[best]) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private boolean expand(int node, Board board, boolean attacker, int ply, int depth, int budget) {
+        MoveList list = lists[depth];
+        board.generateLegalMoves(list);
+        int count = list.size();
+        if (size + count > Math.min(capacity, budget + MoveList.CAPACITY) || !ensureCapacity(size + count)) {
+            return false;
+        }
+        int first = size;
+        for (int i = 0; i < count; i++) {
+            newNode(node, list.get(i));
+        }
+        firstChild[node] = first;
+        childCount[node] = (short) count;
+        nodes++;
+
+        // PN² : les fils prennent les nombres d'une recherche du second niveau depuis ce noeud
+        if (secondLevel != null && secondLevel.capacity > SECOND_LEVEL_MIN_NODES) {
+            int subBudget = Math.min(secondLevel.capacity - MoveList.CAPACITY,
+                                     Math.max(SECOND_LEVEL_MIN_NODES, Math.min(SECOND_LEVEL_MAX_NODES,
+                                                                               size / SECOND_LEVEL_DIVISOR)));
+            secondLevel.search(board, attacker, ply, subBudget);
+            if (secondLevel.firstChild[0] >= 0) {
+                for (int i = 0; i < count; i++) {
+                    proof[first + i] = secondLevel.proof[secondLevel.firstChild[0] + i];
+                    disproof[first + i] = secondLevel.disproof[secondLevel.firstChild[0] + i];
+                }
+                return true;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            board.makeMove(list.get(i));
+            evaluate(first + i, board, !attacker, ply + 1);
+            board.unmakeMove(list.get(i));
+        }
+        return true;
+    }
+
+    // Nombres initiaux d'une feuille : fin de partie, tables de finales, ou nombre de coups
+    private void evaluate(int node, Board board, boolean attacker, int ply) {
+        if (tablebase != null && tablebase.covers(board)) {
+            int value = tablebase.probe(board);
+            if (value != Tablebase.UNKNOWN) {
+                boolean won = attacker ? TablebaseIndex.isWin(value) : TablebaseIndex.isLoss(value);
+                setSolved(node, won);
+                return;
+            }
+        }
+        board.generateLegalMoves(leafMoves);
+        if (leafMoves.isEmpty()) {
+            // Le camp au trait a perdu
+            setSolved(node, !attacker);
+        } else if (ply >= maxPly) {
+            setSolved(node, false);
+        } else if (attacker) {
+            proof[node] = 1;
+            disproof[node] = leafMoves.size();
+        } else {
+            proof[node] = leafMoves.size();
+            disproof[node] = 1;
+        }
+    }
+
+    private void setSolved(int node, boolean won) {
+        proof[node] = won ? 0 : INFINITY;
+        disproof[node] = won ? INFINITY : 0;
+    }
+
+    // Attaquant : un fils prouvé suffit, il faut les réfuter tous ; défenseur : l'inverse
+    private void update(int node, boolean attacker) {
+        int first = firstChild[node];
+        int min = INFINITY;
+        int sum = 0;
+        for (int child = first; child < first + childCount[node]; child++) {
+            int minimized = attacker ? proof[child] : disproof[child];
+            int summed = attacker ? disproof[child] : proof[child];
+            min = Math.min(min, minimized);
+            sum = Math.min(INFINITY, sum + summed);
+        }
+        if (attacker) {
+            proof[node] = min;
+            disproof[node] = sum;
+        } else {
+            proof[node] = sum;
+            disproof[node] = min;
+        }
+    }
+
+    private void newNode(int parentNode, long move) {
+        int node = size++;
+        proof[node] = 1;
+        disproof[node] = 1;
+        parent[node] = parentNode;
+        firstChild[node] = -1;
+        childCount[node] = 0;
+        moves[node] = move;
+    }
+
+    private void allocate(int nodes) {
+        proof = new int[nodes];
+        disproof = new int[nodes];
+        parent = new int[nodes];
+        firstChild = new int[nodes];
+        childCount = new short[nodes];
+        moves = new long[nodes];
+    }
+
+    // Les tableaux doublent jusqu'à la limite de mémoire
+    private boolean ensureCapacity(int needed) {
+        if (needed <= proof.length) {
+            return true;
+        }
+        if (needed > capacity) {
+            return false;
+        }
+        int length = (int) Math.min(capacity, Math.max(needed, 2L * proof.length));
+        proof = Arrays.copyOf(proof, length);
+        disproof = Arrays.copyOf(disproof, length);
+        parent = Arrays.copyOf(parent, length);
+        firstChild = Arrays.copyOf(firstChild, length);
+        childCount = Arrays.copyOf(childCount, length);
+        moves = Arrays.copyOf(moves, length);
+        return true;
+    }
+}
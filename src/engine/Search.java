@@ -0,0 +1,392 @@
+package engine;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+
+// Recherche alpha-beta (negamax) à approfondissement itératif, limitée en temps :
+// après la limite souple on ne commence plus de nouvelle profondeur,
+// à la limite dure la recherche s'arrête et garde le coup de la dernière profondeur finie.
+// À chaque profondeur, le premier coup de la racine est cherché seul, puis les
+// autres sont répartis entre les fils qui partagent la meilleure note trouvée.
+public class Search {
+    public static final int INFINITY = 1_000_000;
+    public static final int WIN = 100_000;
+    public static final int MAX_DEPTH = 64;
+    // Environ onze jours : pour chercher à profondeur fixe
+    public static final long NO_TIME_LIMIT = 1_000_000_000L;
+    public static final int DEFAULT_HASH_MB = 32;
+
+    private static final Logger LOGGER = Logger.getLogger(Search.class.getName());
+
+    private long softLimitMillis = 1000;
+    private long hardLimitMillis = 2000;
+    private int maxDepth = MAX_DEPTH;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    // Élagages et réductions, activés par défaut selon les mesures de engine.Bench
+    private boolean lateMoveReductions = true;
+    private boolean futilityPruning = true;
+    private boolean probCut = false;
+
+    // Bibliothèque d'ouvertures consultée avant de chercher, null sans bibliothèque
+    private OpeningBook book;
+    private final Random bookRandom = new Random();
+    // Tables de finales : coup parfait à la racine, valeur exacte dans l'arbre
+    private volatile Tablebase tablebase;
+
+    private TranspositionTable table = new TranspositionTable(DEFAULT_HASH_MB);
+    private SearchWorker[] workers = new SearchWorker[0];
+    // Les fils d'aide passent par EngineExecutor, avec le jeton de la recherche
+    private final EngineExecutor executor = EngineExecutor.get();
+    private final MoveList rootMoves = new MoveList();
+
+    private volatile long deadline;
+    private volatile long softDeadline;
+    private volatile boolean stopped;
+    // Réflexion pendant le tour de l'adversaire : pas de limite de temps avant ponderHit()
+    private volatile boolean pondering;
+    // Enfant du jeton de l'appelant, partagé avec les fils d'aide : annulé avec la partie
+    // ou par l'arrêt d'EngineExecutor
+    private volatile CancellationToken token = CancellationToken.NONE;
+    private int completedDepth;
+    private int bestScore;
+    private long elapsedNanos;
+    private long lastIterationNodes;
+    private long previousIterationNodes;
+
+    // Itération en cours, partagée entre les fils
+    private final AtomicInteger nextRootMove = new AtomicInteger();
+    private final Object rootLock = new Object();
+    private volatile int iterationAlpha;
+    private volatile long iterationBest;
+
+    // Une profondeur de plus coûte plusieurs fois la précédente : passé la moitié
+    // du budget, elle a peu de chances de finir
+    public void setTimeBudget(long millis) {
+        setTimeLimits(millis / 2, millis);
+    }
+
+    public void setTimeLimits(long softMillis, long hardMillis) {
+        this.softLimitMillis = softMillis;
+        this.hardLimitMillis = hardMillis;
+    }
+
+    public void setMaxDepth(int depth) {
+        this.maxDepth = Math.max(1, Math.min(depth, MAX_DEPTH));
+    }
+
+    public synchronized void setThreads(int count) {
+        threads = Math.max(1, count);
+    }
+
+    // Les coups tardifs et calmes sont d'abord cherchés moins profond
+    public void setLateMoveReductions(boolean enabled) {
+        this.lateMoveReductions = enabled;
+    }
+
+    // À un demi-coup de l'horizon, on saute les coups calmes d'une position déjà trop mauvaise
+    public void setFutilityPruning(boolean enabled) {
+        this.futilityPruning = enabled;
+    }
+
+    // Une recherche réduite bien au-dessus de beta suffit à couper le noeud
+    public void setProbCut(boolean enabled) {
+        this.probCut = enabled;
+    }
+
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    public boolean isLateMoveReductions() { return lateMoveReductions; }
+    public boolean isFutilityPruning() { return futilityPruning; }
+    public boolean isProbCut() { return probCut; }
+
+    // Taille de la table de transposition partagée, en mégaoctets
+    public synchronized void setHashSize(int megabytes) {
+        table = new TranspositionTable(megabytes);
+        workers = new SearchWorker[0];
+    }
+
+    public synchronized void clearHash() {
+        table.clear();
+    }
+
+    public long getSoftLimit() { return softLimitMillis; }
+    public long getHardLimit() { return hardLimitMillis; }
+    public int getThreads() { return threads; }
+    public int getCompletedDepth() { return completedDepth; }
+    // Note de la dernière profondeur finie, pour le camp au trait
+    public int getBestScore() { return bestScore; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000L; }
+
+    public long getNodes() {
+        long nodes = 0;
+        for (SearchWorker worker : workers) {
+            nodes += worker.getNodes();
+        }
+        return nodes;
+    }
+
+    // Noeuds de la recherche de calme, en plus de getNodes()
+    public long getQuiescenceNodes() {
+        long nodes = 0;
+        for (SearchWorker worker : workers) {
+            nodes += worker.getQuiescenceNodes();
+        }
+        return nodes;
+    }
+
+    // Positions de l'arbre dont la valeur est venue des tables de finales
+    public long getTablebaseHits() {
+        long hits = 0;
+        for (SearchWorker worker : workers) {
+            hits += worker.getTablebaseHits();
+        }
+        return hits;
+    }
+
+    // Part des coupures beta obtenues dès le premier coup : mesure la qualité du tri des coups
+    public double getFirstMoveCutoffRate() {
+        long cutoffs = 0;
+        long firstMoveCutoffs = 0;
+        for (SearchWorker worker : workers) {
+            cutoffs += worker.getCutoffs();
+            firstMoveCutoffs += worker.getFirstMoveCutoffs();
+        }
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    // Facteur de branchement effectif : noeuds de la dernière itération sur ceux de la précédente
+    public double getBranchingFactor() {
+        return previousIterationNodes == 0 ? 0 : (double) lastIterationNodes / previousIterationNodes;
+    }
+
+    public long getNodesPerSecond() {
+        long nodes = getNodes() + getQuiescenceNodes();
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    // Meilleur coup pour le camp au trait, ou PackedMove.NONE s'il n'y en a pas
+    public long findBestMove(Board position) {
+        return findBestMove(position, CancellationToken.NONE);
+    }
+
+    public synchronized long findBestMove(Board position, CancellationToken token) {
+        stopped = false;
+        pondering = false;
+        this.token = token.child(0);
+        if (book != null) {
+            long move = book.probe(position, bookRandom);
+            if (move != PackedMove.NONE) {
+                LOGGER.log(Level.FINE, "coup de la bibliothèque d''ouvertures");
+                completedDepth = 0;
+                bestScore = 0;
+                return move;
+            }
+        }
+        return think(position);
+    }
+
+    // Réflexion sur la position attendue après la réponse de l'adversaire, jusqu'à
+    // ponderHit() ou stop(). startPondering() est appelé d'abord par le fil qui
+    // pourra l'arrêter, pour qu'un stop() arrivé avant le début ne soit pas perdu.
+    public void startPondering() {
+        stopped = false;
+        pondering = true;
+    }
+
+    public synchronized long ponder(Board position, CancellationToken token) {
+        this.token = token.child(0);
+        return think(position);
+    }
+
+    // L'adversaire a joué le coup attendu : la réflexion continue avec le temps d'un coup normal
+    public void ponderHit() {
+        long now = System.nanoTime();
+        softDeadline = now + softLimitMillis * 1_000_000L;
+        deadline = now + hardLimitMillis * 1_000_000L;
+        pondering = false;
+    }
+
+    // Arrête la recherche en cours ; elle rend le coup de la dernière profondeur finie
+    public void stop() {
+        stopped = true;
+    }
+
+    public boolean isPondering() {
+        return pondering;
+    }
+
+    // Coup enregistré dans la table de transposition pour cette position, s'il est légal
+    public long getHashMove(Board position) {
+        long entry = table.probe(position.getHash());
+        if (entry == 0 || !TranspositionTable.hasMove(entry)) {
+            return PackedMove.NONE;
+        }
+        MoveList moves = new MoveList();
+        position.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            if (PackedMove.from(move) == TranspositionTable.moveFrom(entry)
+                    && PackedMove.to(move) == TranspositionTable.moveTo(entry)) {
+                return move;
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    private long think(Board position) {
+        long start = System.nanoTime();
+        // Sans limite pendant la réflexion ; un ponderHit() arrivé avant reste valable
+        softDeadline = deadline = start + NO_TIME_LIMIT * 1_000_000L;
+        if (!pondering) {
+            softDeadline = start + softLimitMillis * 1_000_000L;
+            deadline = start + hardLimitMillis * 1_000_000L;
+        }
+        completedDepth = 0;
+        bestScore = 0;
+        lastIterationNodes = previousIterationNodes = 0;
+        table.newSearch();
+        prepareWorkers(position);
+
+        Board root = new Board(position);
+        root.generateLegalMoves(rootMoves);
+        if (rootMoves.isEmpty()) {
+            return PackedMove.NONE;
+        }
+        // Coup forcé : inutile de chercher
+        if (rootMoves.size() == 1) {
+            return rootMoves.get(0);
+        }
+        Tablebase tables = tablebase;
+        if (tables != null && tables.covers(root)) {
+            long move = tables.bestMove(root);
+            if (move != PackedMove.NONE) {
+                bestScore = tables.score(root, 0);
+                elapsedNanos = System.nanoTime() - start;
+                LOGGER.log(Level.FINE, "coup des tables de finales, note {0}", bestScore);
+                return move;
+            }
+        }
+
+        long bestMove = rootMoves.get(0);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            checkTime();
+            // Le meilleur coup de l'itération précédente est cherché en premier
+            moveToFront(rootMoves, bestMove);
+            long nodesBefore = getNodes() + getQuiescenceNodes();
+            searchIteration(depth);
+            if (stopped) {
+                break;
+            }
+            previousIterationNodes = lastIterationNodes;
+            lastIterationNodes = getNodes() + getQuiescenceNodes() - nodesBefore;
+            bestMove = iterationBest;
+            bestScore = iterationAlpha;
+            completedDepth = depth;
+            elapsedNanos = System.nanoTime() - start;
+            LOGGER.log(Level.FINE, "profondeur {0} : note {1}, {2} noeuds + {3} de calme, {4} ms, "
+                       + "branchement {5}, coupures au premier coup {6}",
+                       new Object[]{depth, iterationAlpha, getNodes(), getQuiescenceNodes(), getElapsedMillis(),
+                                    getBranchingFactor(), getFirstMoveCutoffRate()});
+            if (Math.abs(iterationAlpha) >= WIN - Board.MAX_PLY || System.nanoTime() > softDeadline) {
+                break;
+            }
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return bestMove;
+    }
+
+    private void searchIteration(int depth) {
+        long first = rootMoves.get(0);
+        int score = workers[0].searchRootMove(first, depth, -INFINITY, INFINITY);
+        if (stopped) {
+            return;
+        }
+        iterationBest = first;
+        iterationAlpha = score;
+        nextRootMove.set(1);
+
+        Future<?>[] tasks = new Future<?>[workers.length - 1];
+        for (int i = 1; i < workers.length; i++) {
+            SearchWorker worker = workers[i];
+            tasks[i - 1] = executor.submit(token, () -> worker.searchRootMoves(rootMoves, depth));
+        }
+        workers[0].searchRootMoves(rootMoves, depth);
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                stopped = true;
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.SEVERE, null, e.getCause());
+                stopped = true;
+            }
+        }
+    }
+
+    private void prepareWorkers(Board position) {
+        if (workers.length != threads) {
+            workers = new SearchWorker[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new SearchWorker(this, table);
+            }
+        }
+        for (SearchWorker worker : workers) {
+            worker.reset(position);
+        }
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    void checkTime() {
+        if (System.nanoTime() > deadline || token.isCancelled()) {
+            stopped = true;
+        }
+    }
+
+    int nextRootMove() {
+        return nextRootMove.getAndIncrement();
+    }
+
+    int getIterationAlpha() {
+        return iterationAlpha;
+    }
+
+    void reportRootScore(long move, int score) {
+        synchronized (rootLock) {
+            if (score > iterationAlpha) {
+                iterationAlpha = score;
+                iterationBest = move;
+            }
+        }
+    }
+
+    private static void moveToFront(MoveList list, long move) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == move) {
+                list.set(i, list.get(0));
+                list.set(0, move);
+                return;
+            }
+        }
+    }
+}
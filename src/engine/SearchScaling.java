@@ -0,0 +1,72 @@
+package engine;
+
+import java.util.Random;
+import model.Board;
+import model.MoveList;
+import model.PieceColor;
+
+// Mesure le gain des fils de recherche : temps pour atteindre une profondeur fixe,
+// et profondeur atteinte dans un temps fixe, pour 1 à N fils.
+// Usage : java engine.SearchScaling [fils max] [profondeur] [temps ms]
+public class SearchScaling {
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 9;
+        long budget = args.length > 2 ? Long.parseLong(args[2]) : 2000;
+
+        Board[] positions = {startPosition(), middlegame()};
+
+        // Échauffement du JIT avant de mesurer
+        Search warmup = new Search();
+        warmup.setThreads(1);
+        warmup.setTimeLimits(budget, budget);
+        warmup.findBestMove(positions[1]);
+        String[] names = {"ouverture", "milieu de partie"};
+
+        for (int p = 0; p < positions.length; p++) {
+            System.out.println("== " + names[p]);
+            long baseTime = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                Search search = new Search();
+                search.setThreads(threads);
+
+                search.setMaxDepth(depth);
+                search.setTimeLimits(Search.NO_TIME_LIMIT, Search.NO_TIME_LIMIT);
+                search.findBestMove(positions[p]);
+                long timeToDepth = Math.max(1, search.getElapsedMillis());
+                if (threads == 1) {
+                    baseTime = timeToDepth;
+                }
+
+                search.setMaxDepth(Search.MAX_DEPTH);
+                search.setTimeLimits(budget, budget);
+                search.findBestMove(positions[p]);
+
+                System.out.printf("%2d fil(s) : profondeur %d en %d ms (x%.2f), profondeur %d atteinte en %d ms, %d noeuds/s%n",
+                                  threads, depth, timeToDepth, (double) baseTime / timeToDepth,
+                                  search.getCompletedDepth(), budget, search.getNodesPerSecond());
+            }
+        }
+    }
+
+    static Board startPosition() {
+        Board board = new Board();
+        board.initializeBoard(PieceColor.WHITE);
+        return board;
+    }
+
+    // Position de milieu de partie reproductible : 20 demi-coups tirés avec une graine fixe
+    static Board middlegame() {
+        Board board = startPosition();
+        Random random = new Random(20);
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < 20; ply++) {
+            board.generateLegalMoves(moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        return new Board(board);
+    }
+}
@@ -0,0 +1,320 @@
+package engine;
+
+import java.util.Arrays;
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+import model.Squares;
+
+// État propre à un fil de recherche : sa copie du plateau, ses tampons de coups
+final class SearchWorker {
+    private final Search search;
+    private final TranspositionTable table;
+    private final Evaluator evaluator = new Evaluator();
+    private final MoveList[] moves = MoveList.perPly(Board.MAX_PLY);
+    private Board board;
+    private long nodes;
+    // Noeuds de la recherche de calme, comptés à part
+    private long quiescenceNodes;
+    // Coupures beta, et celles obtenues dès le premier coup essayé
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private Tablebase tablebase;
+    private long tablebaseHits;
+
+    // Tri des coups : coup de la table, prises selon le matériel gagné, coups
+    // tueurs de la profondeur, puis historique des coupures par case de départ et d'arrivée
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 26;
+    private static final int HISTORY_LIMIT = KILLER_SCORE - 1;
+    private final int[][] moveScores = new int[Board.MAX_PLY][MoveList.CAPACITY];
+    private final long[][] killers = new long[Board.MAX_PLY][2];
+    private final int[][] history = new int[Squares.FIELDS][Squares.FIELDS];
+
+    // Réductions des coups tardifs : à partir de cette profondeur et de ce rang dans le tri
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_MOVE = 3;
+    private static final int LMR_LATE_MOVE = 6;
+    // Élagage de futilité : plus qu'un pion d'écart
+    private static final int FUTILITY_MARGIN = 120;
+    // ProbCut : recherche réduite de 4 demi-coups contre beta + marge
+    private static final int PROBCUT_MIN_DEPTH = 5;
+    private static final int PROBCUT_REDUCTION = 4;
+    private static final int PROBCUT_MARGIN = 80;
+
+    SearchWorker(Search search, TranspositionTable table) {
+        this.search = search;
+        this.table = table;
+    }
+
+    void reset(Board position) {
+        board = new Board(position);
+        tablebase = search.getTablebase();
+        tablebaseHits = 0;
+        nodes = 0;
+        quiescenceNodes = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        for (long[] killer : killers) {
+            killer[0] = killer[1] = PackedMove.NONE;
+        }
+        for (int[] row : history) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    long getNodes() { return nodes; }
+    long getQuiescenceNodes() { return quiescenceNodes; }
+    long getCutoffs() { return cutoffs; }
+    long getFirstMoveCutoffs() { return firstMoveCutoffs; }
+    long getTablebaseHits() { return tablebaseHits; }
+
+    // Prend les coups de la racine un par un tant qu'il en reste
+    void searchRootMoves(MoveList rootMoves, int depth) {
+        int index;
+        while (!search.isStopped() && (index = search.nextRootMove()) < rootMoves.size()) {
+            long move = rootMoves.get(index);
+            int score = searchRootMove(move, depth, search.getIterationAlpha(), Search.INFINITY);
+            if (!search.isStopped()) {
+                search.reportRootScore(move, score);
+            }
+        }
+    }
+
+    int searchRootMove(long move, int depth, int alpha, int beta) {
+        board.makeMove(move);
+        int score = -negamax(depth - 1, -beta, -alpha, 1);
+        board.unmakeMove(move);
+        return score;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+        if ((++nodes & 1023) == 0) {
+            search.checkTime();
+        }
+        if (search.isStopped()) {
+            return 0;
+        }
+
+        // Assez peu de pièces : la valeur exacte est dans les tables de finales
+        if (tablebase != null && tablebase.covers(board)) {
+            int score = tablebase.score(board, ply);
+            if (score != Tablebase.UNKNOWN) {
+                tablebaseHits++;
+                return score;
+            }
+        }
+
+        long key = board.getHash();
+        long entry = table.probe(key);
+        if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        // ProbCut, avant de générer les coups : la recherche réduite réutilise ceux de ce demi-coup
+        if (search.isProbCut() && depth >= PROBCUT_MIN_DEPTH && Math.abs(beta) < Search.WIN - Board.MAX_PLY) {
+            int probBeta = beta + PROBCUT_MARGIN;
+            int score = negamax(depth - PROBCUT_REDUCTION, probBeta - 1, probBeta, ply);
+            if (search.isStopped()) {
+                return 0;
+            }
+            if (score >= probBeta) {
+                return beta;
+            }
+        }
+
+        MoveList list = moves[ply];
+        board.generateLegalMoves(list);
+        // Le camp qui ne peut plus jouer a perdu
+        if (list.isEmpty()) {
+            return -Search.WIN + ply;
+        }
+        if (ply >= Board.MAX_PLY - 1) {
+            return evaluator.evaluate(board);
+        }
+        boolean hasTableMove = entry != 0 && TranspositionTable.hasMove(entry);
+        scoreMoves(list, ply, hasTableMove ? TranspositionTable.moveFrom(entry) : -1,
+                   hasTableMove ? TranspositionTable.moveTo(entry) : -1);
+
+        // Sans prise à jouer, les coups calmes ne rattraperont pas un tel retard
+        boolean quiet = !PackedMove.isCapture(list.get(0));
+        boolean futile = search.isFutilityPruning() && depth == 1 && quiet
+                && Math.abs(alpha) < Search.WIN - Board.MAX_PLY
+                && evaluator.evaluate(board) + FUTILITY_MARGIN <= alpha;
+
+        int originalAlpha = alpha;
+        long bestMove = PackedMove.NONE;
+        for (int i = 0; i < list.size(); i++) {
+            long move = pickMove(list, ply, i);
+            boolean tactical = PackedMove.isPromotion(move) || moveScores[ply][i] >= KILLER_SCORE;
+            if (futile && i > 0 && !tactical) {
+                continue;
+            }
+
+            board.makeMove(move);
+            int score;
+            // Pas de réduction si le coup donne une prise à l'adversaire
+            if (search.isLateMoveReductions() && quiet && !tactical
+                    && depth >= LMR_MIN_DEPTH && i >= LMR_MIN_MOVE
+                    && !board.hasMandatoryCaptures(board.getSideToMove())) {
+                int reduction = i >= LMR_LATE_MOVE ? 2 : 1;
+                score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && !search.isStopped()) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            } else {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            }
+            board.unmakeMove(move);
+            if (search.isStopped()) {
+                return 0;
+            }
+            if (score >= beta) {
+                cutoffs++;
+                if (i == 0) {
+                    firstMoveCutoffs++;
+                }
+                if (!PackedMove.isCapture(move)) {
+                    rememberQuietCutoff(move, depth, ply);
+                }
+                table.store(key, move, toTable(score, ply), depth, TranspositionTable.LOWER);
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+            }
+        }
+        int bound = alpha > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(alpha, ply), depth, bound);
+        return alpha;
+    }
+
+    // Au-delà de la profondeur, on ne suit que les rafles : une position où une prise
+    // est obligatoire n'est pas évaluée avant la fin de l'échange. La prise étant
+    // obligatoire, le camp au trait ne peut pas s'arrêter sur la note statique.
+    private int quiescence(int alpha, int beta, int ply) {
+        if ((++quiescenceNodes & 1023) == 0) {
+            search.checkTime();
+        }
+        if (search.isStopped()) {
+            return 0;
+        }
+
+        MoveList list = moves[ply];
+        board.generateLegalMoves(list);
+        if (list.isEmpty()) {
+            return -Search.WIN + ply;
+        }
+        if (!PackedMove.isCapture(list.get(0)) || ply >= Board.MAX_PLY - 1) {
+            return evaluator.evaluate(board);
+        }
+
+        scoreMoves(list, ply, -1, -1);
+        for (int i = 0; i < list.size(); i++) {
+            long move = pickMove(list, ply, i);
+            board.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            board.unmakeMove(move);
+            if (search.isStopped()) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    // Les gains sont comptés depuis la racine ; dans la table, depuis la position
+    private static int toTable(int score, int ply) {
+        if (score >= Search.WIN - Board.MAX_PLY) return score + ply;
+        if (score <= -Search.WIN + Board.MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= Search.WIN - Board.MAX_PLY) return score - ply;
+        if (score <= -Search.WIN + Board.MAX_PLY) return score + ply;
+        return score;
+    }
+
+    private void scoreMoves(MoveList list, int ply, int tableFrom, int tableTo) {
+        int[] scores = moveScores[ply];
+        long opponentKings = board.isWhiteToMove() ? board.getBlackKings() : board.getWhiteKings();
+        for (int i = 0; i < list.size(); i++) {
+            long move = list.get(i);
+            int from = PackedMove.from(move);
+            int to = PackedMove.to(move);
+            if (from == tableFrom && to == tableTo) {
+                scores[i] = TT_MOVE_SCORE;
+            } else if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                long captured = PackedMove.captured(move);
+                int kings = Long.bitCount(captured & opponentKings);
+                int material = kings * Evaluator.KING_VALUE
+                        + (Long.bitCount(captured) - kings) * Evaluator.MAN_VALUE;
+                if (PackedMove.isPromotion(move)) {
+                    material += Evaluator.KING_VALUE - Evaluator.MAN_VALUE;
+                }
+                scores[i] = CAPTURE_SCORE + material;
+            } else if (move == killers[ply][0]) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = history[from][to];
+            }
+        }
+    }
+
+    // Sélection du meilleur coup restant : on ne trie que ce qui est réellement essayé
+    private long pickMove(MoveList list, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < list.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        long move = list.get(best);
+        if (best != index) {
+            list.set(best, list.get(index));
+            list.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    private void rememberQuietCutoff(long move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        history[from][to] += depth * depth;
+        if (history[from][to] > HISTORY_LIMIT) {
+            // Les valeurs restent sous celles des coups tueurs
+            for (int[] row : history) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package engine;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+import model.PieceColor;
+
+// Lecture des tables de finales (voir TablebaseGenerator) depuis leurs fichiers
+// compressés : chaque table est découpée en blocs de 16 Ko de valeurs, compressés
+// séparément. Les fichiers sont projetés en mémoire et seuls les blocs demandés
+// sont décompressés ; les derniers servis restent dans un cache LRU de taille fixe,
+// découpé en segments pour que les fils de recherche ne s'attendent pas.
+public final class Tablebase {
+    public static final String DEFAULT_DIRECTORY = "data/finales";
+    public static final String EXTENSION = ".dtc";
+    public static final int DEFAULT_CACHE_MB = 16;
+    // Position hors des tables
+    public static final int UNKNOWN = -1;
+
+    private static final Logger LOGGER = Logger.getLogger(Tablebase.class.getName());
+    private static final int MAGIC = 0x44544331;
+    private static final int BLOCK_SIZE = 1 << 14;
+    private static final int SEGMENTS = 16;
+
+    // Ouvertes une fois pour tout le programme : les projections et le cache sont partagés
+    private static Tablebase defaultTables;
+    private static boolean defaultLoaded;
+
+    private final Table[] tables = new Table[TablebaseIndex.KEYS];
+    private int maxPieces;
+    private final BlockCache[] cache = new BlockCache[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+    private final ThreadLocal<long[]> positions = ThreadLocal.withInitial(() -> new long[4]);
+
+    // Une table ouverte : position de chaque bloc dans le fichier
+    private static final class Table {
+        final TablebaseIndex index;
+        final MappedBytes data;
+        final long[] offsets;
+
+        Table(TablebaseIndex index, MappedBytes data, long[] offsets) {
+            this.index = index;
+            this.data = data;
+            this.offsets = offsets;
+        }
+    }
+
+    private static final class BlockCache extends LinkedHashMap<Long, byte[]> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        BlockCache(int capacity) {
+            super(capacity * 2, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private Tablebase(int cacheMegabytes) {
+        int blocks = Math.max(SEGMENTS, (int) ((long) cacheMegabytes * 1024 * 1024 / BLOCK_SIZE));
+        for (int i = 0; i < SEGMENTS; i++) {
+            cache[i] = new BlockCache(blocks / SEGMENTS);
+        }
+    }
+
+    // Toutes les tables compressées d'un dossier
+    public static Tablebase open(Path directory, int cacheMegabytes) throws IOException {
+        Tablebase tablebase = new Tablebase(cacheMegabytes);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                tablebase.load(file);
+            }
+        }
+        return tablebase;
+    }
+
+    // Tables livrées avec le jeu, ou null s'il n'y en a pas
+    public static synchronized Tablebase getDefault() {
+        if (!defaultLoaded) {
+            defaultLoaded = true;
+            Path directory = Paths.get(DEFAULT_DIRECTORY);
+            if (Files.isDirectory(directory)) {
+                try {
+                    defaultTables = open(directory, DEFAULT_CACHE_MB);
+                    if (defaultTables.maxPieces == 0) {
+                        defaultTables = null;
+                    }
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "tables de finales illisibles : " + directory, e);
+                }
+            }
+        }
+        return defaultTables;
+    }
+
+    private void load(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        String[] counts = name.substring(0, name.length() - EXTENSION.length()).split("-");
+        if (counts.length != 4) {
+            return;
+        }
+        TablebaseIndex index = new TablebaseIndex(Integer.parseInt(counts[0]), Integer.parseInt(counts[1]),
+                                                  Integer.parseInt(counts[2]), Integer.parseInt(counts[3]));
+        MappedBytes data = MappedBytes.open(file);
+        byte[] header = new byte[20];
+        data.get(0, header, header.length);
+        if (readInt(header, 0) != MAGIC || readInt(header, 4) != BLOCK_SIZE || readLong(header, 8) != index.size()) {
+            throw new IOException("table de finale invalide : " + file);
+        }
+        int blocks = readInt(header, 16);
+        byte[] table = new byte[(blocks + 1) * 8];
+        data.get(header.length, table, table.length);
+        long[] offsets = new long[blocks + 1];
+        for (int i = 0; i <= blocks; i++) {
+            offsets[i] = header.length + table.length + readLong(table, i * 8);
+        }
+        tables[index.hashCode()] = new Table(index, data, offsets);
+        maxPieces = Math.max(maxPieces, index.pieces());
+    }
+
+    public int getMaxPieces() { return maxPieces; }
+    public long getCacheHits() { return hits.sum(); }
+    public long getCacheMisses() { return misses.sum(); }
+
+    // Assez peu de pièces pour que les tables puissent répondre
+    public boolean covers(Board board) {
+        return board.getPieceCount(PieceColor.WHITE) + board.getPieceCount(PieceColor.BLACK) <= maxPieces;
+    }
+
+    // Valeur de la position pour le camp au trait (codage de TablebaseIndex), ou UNKNOWN
+    public int probe(Board board) {
+        if (!covers(board)) {
+            return UNKNOWN;
+        }
+        long[] position = positions.get();
+        TablebaseIndex.canonical(board, position);
+        int whiteMen = Long.bitCount(position[0]);
+        int whiteKings = Long.bitCount(position[2]);
+        if (whiteMen + whiteKings == 0) {
+            return TablebaseIndex.encode(0);
+        }
+        Table table = tables[TablebaseIndex.key(whiteMen, Long.bitCount(position[1]),
+                                                whiteKings, Long.bitCount(position[3]))];
+        if (table == null) {
+            return UNKNOWN;
+        }
+        long index = table.index.index(position[0], position[1], position[2], position[3]);
+        if (index < 0) {
+            return UNKNOWN;
+        }
+        return block(table, (int) (index / BLOCK_SIZE))[(int) (index % BLOCK_SIZE)] & 0xFF;
+    }
+
+    // Note de recherche, pour le camp au trait à cette profondeur ; UNKNOWN hors des tables
+    public int score(Board board, int ply) {
+        int value = probe(board);
+        if (value == UNKNOWN || value == TablebaseIndex.DRAW) {
+            return value == UNKNOWN ? UNKNOWN : 0;
+        }
+        int distance = ply + TablebaseIndex.distance(value);
+        return TablebaseIndex.isWin(value) ? Search.WIN - distance : -Search.WIN + distance;
+    }
+
+    // Coup parfait : le gain le plus court, sinon une nulle, sinon la perte la plus longue.
+    // PackedMove.NONE si la position n'est pas dans les tables.
+    public long bestMove(Board position) {
+        if (probe(position) == UNKNOWN) {
+            return PackedMove.NONE;
+        }
+        Board board = new Board(position);
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(moves);
+        long best = PackedMove.NONE;
+        int bestRank = Integer.MIN_VALUE;
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            board.makeMove(move);
+            int value = probe(board);
+            board.unmakeMove(move);
+            if (value == UNKNOWN) {
+                return PackedMove.NONE;
+            }
+            // Valeur pour nous : l'adversaire perd (vite), nulle, ou il gagne (tard)
+            int rank;
+            if (TablebaseIndex.isLoss(value)) {
+                rank = 2 * TablebaseIndex.MAX_DISTANCE - TablebaseIndex.distance(value);
+            } else if (value == TablebaseIndex.DRAW) {
+                rank = TablebaseIndex.MAX_DISTANCE;
+            } else {
+                rank = TablebaseIndex.distance(value);
+            }
+            if (rank > bestRank) {
+                bestRank = rank;
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    private byte[] block(Table table, int block) {
+        long key = ((long) table.index.hashCode() << 32) | block;
+        BlockCache segment = cache[(int) ((key * 0x9E3779B97F4A7C15L) >>> 60)];
+        byte[] values;
+        synchronized (segment) {
+            values = segment.get(key);
+        }
+        if (values != null) {
+            hits.increment();
+            return values;
+        }
+        misses.increment();
+        values = decompress(table, block);
+        synchronized (segment) {
+            segment.put(key, values);
+        }
+        return values;
+    }
+
+    private byte[] decompress(Table table, int block) {
+        int length = (int) (table.offsets[block + 1] - table.offsets[block]);
+        byte[] compressed = new byte[length];
+        table.data.get(table.offsets[block], compressed, length);
+        byte[] values = new byte[BLOCK_SIZE];
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int size = 0;
+            while (size < values.length && !inflater.finished()) {
+                size += inflater.inflate(values, size, values.length - size);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("bloc illisible dans la table " + table.index.name(), e);
+        }
+        return values;
+    }
+
+    // Écrit la version compressée d'une table brute du générateur.
+    // Les indices sans position prennent la valeur précédente : ils ne sont jamais lus.
+    static void compress(MappedBytes raw, Path file) throws IOException {
+        int blocks = (int) ((raw.size() + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        long[] offsets = new long[blocks + 1];
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        byte[] values = new byte[BLOCK_SIZE];
+        byte[] buffer = new byte[BLOCK_SIZE * 2];
+        int previous = TablebaseIndex.DRAW;
+        for (int block = 0; block < blocks; block++) {
+            long start = (long) block * BLOCK_SIZE;
+            int length = (int) Math.min(BLOCK_SIZE, raw.size() - start);
+            for (int i = 0; i < length; i++) {
+                int value = raw.get(start + i);
+                if (value == TablebaseIndex.INVALID) {
+                    value = previous;
+                }
+                values[i] = (byte) value;
+                previous = value;
+            }
+            deflater.reset();
+            deflater.setInput(values, 0, length);
+            deflater.finish();
+            while (!deflater.finished()) {
+                data.write(buffer, 0, deflater.deflate(buffer));
+            }
+            offsets[block + 1] = data.size();
+        }
+        deflater.end();
+
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MAGIC);
+            out.writeInt(BLOCK_SIZE);
+            out.writeLong(raw.size());
+            out.writeInt(blocks);
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+            data.writeTo(out);
+        }
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        return ((long) readInt(bytes, offset) << 32) | (readInt(bytes, offset + 4) & 0xFFFFFFFFL);
+    }
+}
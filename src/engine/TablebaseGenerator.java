@@ -0,0 +1,447 @@
+package engine;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.Board;
+import model.MoveList;
+import model.PackedMove;
+import model.Squares;
+
+// Génère les tables de finales (gain, perte ou nulle, et distance en demi-coups)
+// jusqu'à un nombre de pièces donné, par analyse rétrograde.
+// Les tables sont traitées deux par deux : celle d'une répartition du matériel et
+// celle où l'autre camp a le trait (voir TablebaseIndex), les prises et promotions
+// menant à des tables déjà finies. Un premier passage note les positions sans coup
+// et celles dont tous les coups sortent des deux tables ; ensuite, à chaque distance,
+// les prédécesseurs des positions qui viennent d'être résolues sont réexaminés.
+// Chaque passage est partagé entre les fils par tranches d'indices ; les valeurs
+// sont des fichiers projetés en mémoire, les tables peuvent dépasser la mémoire du
+// programme. Les tables finies sont notées dans termine.txt : une génération
+// interrompue reprend où elle en était. Chaque table est aussi écrite compressée
+// (voir Tablebase), seule version dont le jeu a besoin.
+// Usage : java engine.TablebaseGenerator <dossier> [pièces] [fils]
+public class TablebaseGenerator {
+    public static final String EXTENSION = ".dtw";
+    private static final String WAKE_EXTENSION = ".attente";
+    static final String DONE_FILE = "termine.txt";
+    private static final int CHUNK = 1 << 16;
+    // Vers l'arrière d'un pion noir, dans le sens des tables
+    private static final int[] BACKWARD = {Squares.UP_LEFT, Squares.UP_RIGHT};
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Path directory;
+    private final ExecutorService pool;
+    // Valeurs des tables finies et de celles en cours, par TablebaseIndex.key()
+    private final MappedBytes[] values = new MappedBytes[TablebaseIndex.KEYS];
+    private final Set<String> done = new HashSet<>();
+
+    // Tables en cours : positions à réexaminer et distance à laquelle revenir
+    private TablebaseIndex[] group;
+    private MappedBytes[] wake;
+    private long[][] dirty;
+    private final AtomicInteger horizon = new AtomicInteger();
+
+    public TablebaseGenerator(Path directory, int threads) {
+        this.directory = directory;
+        this.pool = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "tables-finales");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage : java engine.TablebaseGenerator <dossier> [pièces] [fils]");
+            return;
+        }
+        int pieces = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        TablebaseGenerator generator = new TablebaseGenerator(Paths.get(args[0]), threads);
+        try {
+            generator.generate(pieces);
+        } finally {
+            generator.shutdown();
+        }
+    }
+
+    public void generate(int pieces) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        Path doneFile = directory.resolve(DONE_FILE);
+        if (Files.exists(doneFile)) {
+            done.addAll(Files.readAllLines(doneFile, StandardCharsets.UTF_8));
+        }
+        // Fichiers d'attente qu'une génération précédente n'a pas pu effacer
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, "*" + WAKE_EXTENSION)) {
+            for (Path leftover : leftovers) {
+                deleteWakeFile(leftover);
+            }
+        }
+        Set<TablebaseIndex> solved = new HashSet<>();
+        for (TablebaseIndex table : TablebaseIndex.upTo(pieces)) {
+            if (!solved.add(table)) {
+                continue;
+            }
+            TablebaseIndex swapped = table.swapped();
+            solved.add(swapped);
+            TablebaseIndex[] tables = table.equals(swapped)
+                    ? new TablebaseIndex[]{table} : new TablebaseIndex[]{table, swapped};
+            if (done.contains(table.name()) && done.contains(swapped.name())) {
+                for (TablebaseIndex finished : tables) {
+                    values[finished.hashCode()] = MappedBytes.open(file(finished));
+                    // Tables brutes d'une version qui ne les compressait pas encore
+                    if (!Files.exists(compressedFile(finished))) {
+                        Tablebase.compress(values[finished.hashCode()], compressedFile(finished));
+                    }
+                }
+                continue;
+            }
+            long start = System.nanoTime();
+            solve(tables);
+            for (TablebaseIndex finished : tables) {
+                values[finished.hashCode()].force();
+                Tablebase.compress(values[finished.hashCode()], compressedFile(finished));
+                done.add(finished.name());
+                Files.write(doneFile, List.of(finished.name()), StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                report(finished, (System.nanoTime() - start) / 1_000_000L);
+            }
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Path file(TablebaseIndex table) {
+        return directory.resolve(table.name() + EXTENSION);
+    }
+
+    // Version lue par Tablebase ; les tables brutes ne servent qu'à la génération
+    private Path compressedFile(TablebaseIndex table) {
+        return directory.resolve(table.name() + Tablebase.EXTENSION);
+    }
+
+    private void solve(TablebaseIndex[] tables) throws IOException, InterruptedException {
+        group = tables;
+        wake = new MappedBytes[tables.length];
+        dirty = new long[tables.length][];
+        horizon.set(0);
+        for (int t = 0; t < tables.length; t++) {
+            values[tables[t].hashCode()] = MappedBytes.create(file(tables[t]), tables[t].size());
+            wake[t] = MappedBytes.create(wakeFile(tables[t]), tables[t].size());
+            dirty[t] = new long[(int) ((tables[t].size() + 63) >>> 6)];
+        }
+
+        runPass((worker, t, index) -> worker.initialize(t, index));
+        for (int level = 1; level <= horizon.get(); level++) {
+            if (level > TablebaseIndex.MAX_DISTANCE) {
+                throw new IllegalStateException("distance trop longue pour " + Arrays.toString(tables));
+            }
+            int target = TablebaseIndex.encode(level - 1);
+            runPass((worker, t, index) -> {
+                if (values[group[t].hashCode()].get(index) == target) {
+                    worker.markPredecessors(t, index);
+                }
+            });
+            int current = level;
+            runPass((worker, t, index) -> {
+                if (values[group[t].hashCode()].get(index) == TablebaseIndex.DRAW
+                        && (isDirty(t, index) || wake[t].get(index) == current)) {
+                    worker.evaluate(t, index, current);
+                }
+            });
+            for (long[] bits : dirty) {
+                Arrays.fill(bits, 0L);
+            }
+        }
+
+        wake = null;
+        dirty = null;
+        for (TablebaseIndex table : tables) {
+            deleteWakeFile(wakeFile(table));
+        }
+    }
+
+    private Path wakeFile(TablebaseIndex table) {
+        return directory.resolve(table.name() + WAKE_EXTENSION);
+    }
+
+    // Une projection n'est libérée qu'au ramasse-miettes : sous Windows, le fichier ne
+    // peut pas encore être effacé. Il le sera au début de la prochaine génération.
+    private static void deleteWakeFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Laissé pour la prochaine génération
+        }
+    }
+
+    private interface Step {
+        void apply(Worker worker, int table, long index);
+    }
+
+    // Un passage sur toutes les positions des tables en cours, par tranches réparties entre les fils
+    private void runPass(Step step) throws InterruptedException {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < group.length; t++) {
+            long size = group[t].size();
+            for (long first = 0; first < size; first += CHUNK) {
+                int table = t;
+                long start = first;
+                long end = Math.min(size, first + CHUNK);
+                tasks.add(() -> {
+                    Worker worker = new Worker();
+                    for (long index = start; index < end; index++) {
+                        step.apply(worker, table, index);
+                    }
+                    return null;
+                });
+            }
+        }
+        for (Future<Void> task : pool.invokeAll(tasks)) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private boolean isDirty(int table, long index) {
+        return (dirty[table][(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    private void markDirty(int table, long index) {
+        long bit = 1L << index;
+        int word = (int) (index >>> 6);
+        if (((long) BITS.getVolatile(dirty[table], word) & bit) == 0) {
+            BITS.getAndBitwiseOr(dirty[table], word, bit);
+        }
+    }
+
+    private void extendHorizon(int level) {
+        horizon.accumulateAndGet(level, Math::max);
+    }
+
+    private int tableOf(TablebaseIndex table) {
+        return group.length > 1 && group[1].equals(table) ? 1 : 0;
+    }
+
+    private void report(TablebaseIndex table, long millis) {
+        MappedBytes bytes = values[table.hashCode()];
+        long wins = 0, losses = 0, draws = 0;
+        int longest = 0;
+        for (long i = 0; i < bytes.size(); i++) {
+            int value = bytes.get(i);
+            if (TablebaseIndex.isWin(value)) {
+                wins++;
+                longest = Math.max(longest, TablebaseIndex.distance(value));
+            } else if (TablebaseIndex.isLoss(value)) {
+                losses++;
+            } else if (value == TablebaseIndex.DRAW) {
+                draws++;
+            }
+        }
+        System.out.printf("%-9s %,14d positions : %,d gagnées, %,d perdues, %,d nulles, "
+                          + "gain le plus long %d demi-coups (%d ms)%n",
+                          table.name(), table.size(), wins, losses, draws, longest, millis);
+    }
+
+    // État d'un fil pendant une tranche
+    private final class Worker {
+        private final Board board = new Board();
+        private final MoveList moves = new MoveList();
+        private final long[] position = new long[4];
+        private final long[] child = new long[4];
+
+        // Premier passage : fin de partie, ou coups qui sortent tous des tables en cours
+        void initialize(int t, long index) {
+            MappedBytes own = values[group[t].hashCode()];
+            if (!group[t].decode(index, position)) {
+                own.put(index, TablebaseIndex.INVALID);
+                return;
+            }
+            board.setPosition(position[0], position[1], position[2], position[3], true, true);
+            board.generateLegalMoves(moves);
+            if (moves.isEmpty()) {
+                own.put(index, TablebaseIndex.encode(0));
+                extendHorizon(1);
+                return;
+            }
+            int minLoss = Integer.MAX_VALUE;
+            int maxWin = -1;
+            boolean draw = false;
+            boolean inGroup = false;
+            for (int i = 0; i < moves.size(); i++) {
+                long move = moves.get(i);
+                if (staysInGroup(move)) {
+                    inGroup = true;
+                    continue;
+                }
+                int value = exitValue(move);
+                if (value == TablebaseIndex.DRAW) {
+                    draw = true;
+                } else if (TablebaseIndex.isLoss(value)) {
+                    minLoss = Math.min(minLoss, TablebaseIndex.distance(value));
+                } else {
+                    maxWin = Math.max(maxWin, TablebaseIndex.distance(value));
+                }
+            }
+            if (minLoss != Integer.MAX_VALUE) {
+                if (inGroup) {
+                    // Gagné au plus tard à cette distance, plus tôt si un coup calme gagne plus vite
+                    wake[t].put(index, minLoss + 1);
+                    extendHorizon(minLoss + 1);
+                } else {
+                    resolve(own, index, minLoss + 1);
+                }
+            } else if (!inGroup && !draw) {
+                resolve(own, index, maxWin + 1);
+            }
+        }
+
+        // Les positions où l'autre camp a pu jouer un coup calme menant ici sont à réexaminer.
+        // Les noirs viennent de jouer : leurs pions descendent, une case en arrière est plus haut.
+        void markPredecessors(int t, long index) {
+            group[t].decode(index, position);
+            long occupied = position[0] | position[1] | position[2] | position[3];
+            int other = tableOf(group[t].swapped());
+            TablebaseIndex predecessors = group[other];
+            long men = position[1];
+            while (men != 0) {
+                int to = Long.numberOfTrailingZeros(men);
+                men &= men - 1;
+                for (int direction : BACKWARD) {
+                    int from = to + direction;
+                    if (Squares.isValid(from) && (occupied & Squares.bit(from)) == 0) {
+                        long moved = position[1] ^ Squares.bit(to) ^ Squares.bit(from);
+                        markPredecessor(other, predecessors, moved, position[3]);
+                    }
+                }
+            }
+            long kings = position[3];
+            while (kings != 0) {
+                int to = Long.numberOfTrailingZeros(kings);
+                kings &= kings - 1;
+                long origins = Squares.kingMoves(to, occupied);
+                while (origins != 0) {
+                    int from = Long.numberOfTrailingZeros(origins);
+                    origins &= origins - 1;
+                    long moved = position[3] ^ Squares.bit(to) ^ Squares.bit(from);
+                    markPredecessor(other, predecessors, position[1], moved);
+                }
+            }
+        }
+
+        private void markPredecessor(int other, TablebaseIndex table, long blackMen, long blackKings) {
+            TablebaseIndex.canonical(position[0], blackMen, position[2], blackKings, false, false, child);
+            long index = table.index(child[0], child[1], child[2], child[3]);
+            if (index >= 0) {
+                markDirty(other, index);
+            }
+        }
+
+        // Valeur à cette distance si elle est connue ; les positions résolues pendant ce
+        // passage sont tenues pour inconnues, pour que l'ordre des fils n'y change rien
+        void evaluate(int t, long index, int level) {
+            MappedBytes own = values[group[t].hashCode()];
+            group[t].decode(index, position);
+            board.setPosition(position[0], position[1], position[2], position[3], true, true);
+            board.generateLegalMoves(moves);
+            int minLoss = Integer.MAX_VALUE;
+            int maxWin = -1;
+            boolean unknown = false;
+            for (int i = 0; i < moves.size(); i++) {
+                long move = moves.get(i);
+                int value = staysInGroup(move) ? groupValue(t, move) : exitValue(move);
+                if (value == TablebaseIndex.DRAW
+                        || (staysInGroup(move) && TablebaseIndex.distance(value) >= level)) {
+                    unknown = true;
+                } else if (TablebaseIndex.isLoss(value)) {
+                    minLoss = Math.min(minLoss, TablebaseIndex.distance(value));
+                } else {
+                    maxWin = Math.max(maxWin, TablebaseIndex.distance(value));
+                }
+            }
+            if (minLoss != Integer.MAX_VALUE) {
+                if (minLoss + 1 < level) {
+                    throw new IllegalStateException("position oubliée : " + group[t].name() + " " + index);
+                }
+                if (minLoss + 1 == level) {
+                    resolve(own, index, level);
+                }
+            } else if (!unknown) {
+                // Tous les coups perdent : le plus long, mais pas avant que le dernier soit connu
+                if (maxWin + 1 == level) {
+                    resolve(own, index, level);
+                } else if (maxWin + 1 > level) {
+                    wake[t].put(index, maxWin + 1);
+                    extendHorizon(maxWin + 1);
+                }
+            }
+        }
+
+        private void resolve(MappedBytes own, long index, int distance) {
+            if (distance > TablebaseIndex.MAX_DISTANCE) {
+                throw new IllegalStateException("distance trop longue : " + distance);
+            }
+            own.put(index, TablebaseIndex.encode(distance));
+            extendHorizon(distance + 1);
+        }
+
+        // Un coup calme sans promotion garde le matériel : la position suivante est dans l'autre table du groupe
+        private boolean staysInGroup(long move) {
+            return !PackedMove.isCapture(move) && !PackedMove.isPromotion(move);
+        }
+
+        private int groupValue(int t, long move) {
+            TablebaseIndex table = group[tableOf(group[t].swapped())];
+            long index = childIndex(table, move);
+            return values[table.hashCode()].get(index);
+        }
+
+        // Valeur d'une position après une prise ou une promotion, dans une table déjà finie
+        private int exitValue(long move) {
+            board.makeMove(move);
+            TablebaseIndex.canonical(board.getWhiteMen(), board.getBlackMen(), board.getWhiteKings(),
+                                     board.getBlackKings(), false, false, child);
+            board.unmakeMove(move);
+            int whiteMen = Long.bitCount(child[0]);
+            int whiteKings = Long.bitCount(child[2]);
+            // Le camp au trait n'a plus de pièce : il a perdu
+            if (whiteMen + whiteKings == 0) {
+                return TablebaseIndex.encode(0);
+            }
+            int key = TablebaseIndex.key(whiteMen, Long.bitCount(child[1]), whiteKings, Long.bitCount(child[3]));
+            TablebaseIndex table = TablebaseIndex.of(child[0], child[1], child[2], child[3]);
+            return values[key].get(table.index(child[0], child[1], child[2], child[3]));
+        }
+
+        private long childIndex(TablebaseIndex table, long move) {
+            board.makeMove(move);
+            TablebaseIndex.canonical(board.getWhiteMen(), board.getBlackMen(), board.getWhiteKings(),
+                                     board.getBlackKings(), false, false, child);
+            board.unmakeMove(move);
+            return table.index(child[0], child[1], child[2], child[3]);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import model.Board;
+import model.Squares;
+
+// Une table de finale par répartition du matériel (pions et dames de chaque camp).
+// Les positions y sont rangées avec les blancs au trait et montant vers la rangée 0 :
+// une position où les noirs ont le trait est d'abord retournée d'un demi-tour,
+// couleurs échangées (voir canonical). L'indice est parfait sur les placements :
+// pions blancs parmi les 45 cases hors de la rangée 0, puis pions noirs, dames
+// blanches et dames noires parmi les cases restantes, chacun en combinaisons.
+// Seuls les pions noirs sur la rangée 9 donnent des indices sans position.
+public final class TablebaseIndex {
+    // Une valeur par position, pour le camp au trait : 0 = nulle (ou pas encore connue),
+    // sinon la distance en demi-coups plus un. Distance paire : perdu, impaire : gagné.
+    public static final int DRAW = 0;
+    public static final int INVALID = 255;
+    public static final int MAX_DISTANCE = 253;
+
+    static final int MAX_PIECES = 8;
+    // Nombre de valeurs de key()
+    public static final int KEYS = (MAX_PIECES + 1) * (MAX_PIECES + 1) * (MAX_PIECES + 1) * (MAX_PIECES + 1);
+    private static final int SQUARES = 50;
+    // Cases 0 à 4 : la rangée de promotion des blancs
+    private static final int WHITE_MEN_FIRST = 5;
+    private static final long WHITE_MEN_SQUARES = ((1L << SQUARES) - 1) & ~((1L << WHITE_MEN_FIRST) - 1);
+    private static final long BLACK_PROMOTION_SQUARES = 0x1FL << 45;
+    private static final long[][] CHOOSE = new long[SQUARES + 1][MAX_PIECES + 1];
+
+    static {
+        for (int n = 0; n <= SQUARES; n++) {
+            CHOOSE[n][0] = 1;
+            for (int k = 1; k <= MAX_PIECES && k <= n; k++) {
+                CHOOSE[n][k] = CHOOSE[n - 1][k - 1] + (k <= n - 1 ? CHOOSE[n - 1][k] : 0);
+            }
+        }
+    }
+
+    private final int whiteMen;
+    private final int blackMen;
+    private final int whiteKings;
+    private final int blackKings;
+    private final long size;
+
+    public TablebaseIndex(int whiteMen, int blackMen, int whiteKings, int blackKings) {
+        this.whiteMen = whiteMen;
+        this.blackMen = blackMen;
+        this.whiteKings = whiteKings;
+        this.blackKings = blackKings;
+        int free = SQUARES - whiteMen;
+        long count = CHOOSE[SQUARES - WHITE_MEN_FIRST][whiteMen] * CHOOSE[free][blackMen];
+        free -= blackMen;
+        count *= CHOOSE[free][whiteKings];
+        free -= whiteKings;
+        this.size = count * CHOOSE[free][blackKings];
+    }
+
+    public static TablebaseIndex of(long whiteMen, long blackMen, long whiteKings, long blackKings) {
+        return new TablebaseIndex(Long.bitCount(whiteMen), Long.bitCount(blackMen),
+                                  Long.bitCount(whiteKings), Long.bitCount(blackKings));
+    }
+
+    // Toutes les tables jusqu'à ce nombre de pièces, dans un ordre où les tables
+    // atteintes par une prise ou une promotion précèdent toujours celle qui y mène
+    public static List<TablebaseIndex> upTo(int pieces) {
+        List<TablebaseIndex> tables = new ArrayList<>();
+        for (int total = 2; total <= Math.min(pieces, MAX_PIECES); total++) {
+            for (int men = 0; men <= total; men++) {
+                for (int white = 0; white <= men; white++) {
+                    for (int whiteKings = 0; whiteKings <= total - men; whiteKings++) {
+                        TablebaseIndex table = new TablebaseIndex(white, men - white, whiteKings,
+                                                                  total - men - whiteKings);
+                        if (table.whitePieces() > 0 && table.blackPieces() > 0) {
+                            tables.add(table);
+                        }
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+
+    public long size() { return size; }
+    public int pieces() { return whitePieces() + blackPieces(); }
+    public int whitePieces() { return whiteMen + whiteKings; }
+    public int blackPieces() { return blackMen + blackKings; }
+
+    // La table des positions où l'autre camp a le trait
+    public TablebaseIndex swapped() {
+        return new TablebaseIndex(blackMen, whiteMen, blackKings, whiteKings);
+    }
+
+    // Nom de fichier : pions blancs, pions noirs, dames blanches, dames noires
+    public String name() {
+        return whiteMen + "-" + blackMen + "-" + whiteKings + "-" + blackKings;
+    }
+
+    // Ramène une position au sens des tables : le camp au trait devient les blancs et monte.
+    // Rend les quatre masques (pions blancs, pions noirs, dames blanches, dames noires) dans out.
+    public static void canonical(Board board, long[] out) {
+        canonical(board.getWhiteMen(), board.getBlackMen(), board.getWhiteKings(), board.getBlackKings(),
+                  board.isWhiteToMove(), board.movesUp(board.getSideToMove()), out);
+    }
+
+    static void canonical(long whiteMen, long blackMen, long whiteKings, long blackKings,
+                          boolean whiteToMove, boolean sideToMoveUp, long[] out) {
+        if (whiteToMove) {
+            out[0] = whiteMen;
+            out[1] = blackMen;
+            out[2] = whiteKings;
+            out[3] = blackKings;
+        } else {
+            out[0] = blackMen;
+            out[1] = whiteMen;
+            out[2] = blackKings;
+            out[3] = whiteKings;
+        }
+        if (!sideToMoveUp) {
+            for (int i = 0; i < 4; i++) {
+                out[i] = Squares.mirror(out[i]);
+            }
+        }
+    }
+
+    // Indice d'une position de cette table (masques de cases de Board), -1 si elle n'y a pas de place
+    public long index(long whiteMen, long blackMen, long whiteKings, long blackKings) {
+        long wm = Squares.toSquares(whiteMen);
+        long bm = Squares.toSquares(blackMen);
+        long wk = Squares.toSquares(whiteKings);
+        long bk = Squares.toSquares(blackKings);
+        if ((wm & ~WHITE_MEN_SQUARES) != 0 || (bm & BLACK_PROMOTION_SQUARES) != 0) {
+            return -1;
+        }
+        long used = wm;
+        long index = rank(wm, WHITE_MEN_SQUARES);
+        index = index * CHOOSE[SQUARES - Long.bitCount(used)][this.blackMen] + rank(bm, ~used);
+        used |= bm;
+        index = index * CHOOSE[SQUARES - Long.bitCount(used)][this.whiteKings] + rank(wk, ~used);
+        used |= wk;
+        return index * CHOOSE[SQUARES - Long.bitCount(used)][this.blackKings] + rank(bk, ~used);
+    }
+
+    // Position d'un indice, dans out comme canonical ; false si l'indice ne correspond à rien
+    public boolean decode(long index, long[] out) {
+        int free = SQUARES - whiteMen - blackMen - whiteKings;
+        long r4 = index % CHOOSE[free][blackKings];
+        index /= CHOOSE[free][blackKings];
+        free += whiteKings;
+        long r3 = index % CHOOSE[free][whiteKings];
+        index /= CHOOSE[free][whiteKings];
+        free += blackMen;
+        long r2 = index % CHOOSE[free][blackMen];
+        long r1 = index / CHOOSE[free][blackMen];
+
+        long wm = unrank(r1, whiteMen, WHITE_MEN_SQUARES);
+        long used = wm;
+        long bm = unrank(r2, blackMen, ~used & ((1L << SQUARES) - 1));
+        used |= bm;
+        long wk = unrank(r3, whiteKings, ~used & ((1L << SQUARES) - 1));
+        used |= wk;
+        long bk = unrank(r4, blackKings, ~used & ((1L << SQUARES) - 1));
+        out[0] = Squares.toFields(wm);
+        out[1] = Squares.toFields(bm);
+        out[2] = Squares.toFields(wk);
+        out[3] = Squares.toFields(bk);
+        return (bm & BLACK_PROMOTION_SQUARES) == 0;
+    }
+
+    // Rang d'un ensemble de cases parmi les combinaisons des cases libres (système combinatoire)
+    private static long rank(long set, long free) {
+        long rank = 0;
+        int k = 1;
+        while (set != 0) {
+            long low = set & -set;
+            set ^= low;
+            rank += CHOOSE[Long.bitCount(free & (low - 1))][k++];
+        }
+        return rank;
+    }
+
+    private static long unrank(long rank, int count, long free) {
+        long set = 0;
+        for (int k = count; k > 0; k--) {
+            int position = k - 1;
+            while (CHOOSE[position + 1][k] <= rank) {
+                position++;
+            }
+            rank -= CHOOSE[position][k];
+            set |= nthBit(free, position);
+        }
+        return set;
+    }
+
+    private static long nthBit(long mask, int n) {
+        for (int i = 0; i < n; i++) {
+            mask &= mask - 1;
+        }
+        return mask & -mask;
+    }
+
+    // Lecture d'une valeur de table
+    public static boolean isWin(int value) { return value != DRAW && value != INVALID && (value & 1) == 0; }
+    public static boolean isLoss(int value) { return value != DRAW && value != INVALID && (value & 1) == 1; }
+    public static int distance(int value) { return value - 1; }
+
+    static int encode(int distance) {
+        return distance + 1;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TablebaseIndex table && table.whiteMen == whiteMen && table.blackMen == blackMen
+                && table.whiteKings == whiteKings && table.blackKings == blackKings;
+    }
+
+    @Override
+    public int hashCode() {
+        return key(whiteMen, blackMen, whiteKings, blackKings);
+    }
+
+    // Numéro de table, pour les retrouver dans un tableau sans rien allouer
+    public static int key(int whiteMen, int blackMen, int whiteKings, int blackKings) {
+        return ((whiteMen * (MAX_PIECES + 1) + blackMen) * (MAX_PIECES + 1) + whiteKings) * (MAX_PIECES + 1)
+                + blackKings;
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
@@ -0,0 +1,125 @@
+package engine;
+
+import java.util.Arrays;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import model.PackedMove;
+
+// Table de transposition partagée par tous les fils, sans verrou.
+// Chaque entrée tient dans deux longs : (clé XOR données) puis données. Un fil qui
+// lit une entrée à moitié écrite par un autre trouve une clé fausse et l'ignore.
+// Les entrées sont rangées par groupes de 4 (64 octets) ; à l'écriture on remplace
+// la même position, sinon l'entrée la moins profonde ou la plus ancienne.
+public final class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+
+    private static final int BUCKET = 4;
+    private static final int ENTRY_BYTES = 16;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // Données d'une entrée :
+    //   bits 0-5 départ, 6-11 arrivée, 12-31 note, 32-38 profondeur,
+    //   39-40 borne, 41-48 âge, 49 coup présent, 63 entrée occupée
+    private static final int SCORE_SHIFT = 12;
+    private static final int SCORE_OFFSET = 1 << 19;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 39;
+    private static final int AGE_SHIFT = 41;
+    private static final long HAS_MOVE = 1L << 49;
+    private static final long OCCUPIED = 1L << 63;
+
+    private final long[] table;
+    private final int bucketMask;
+    private int age;
+
+    public TranspositionTable(int megabytes) {
+        long entries = Math.max(BUCKET, (long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        int buckets = Integer.highestOneBit((int) Math.min(entries / BUCKET, 1 << 26));
+        table = new long[buckets * BUCKET * 2];
+        bucketMask = buckets - 1;
+    }
+
+    public int getSizeInMegabytes() {
+        return (int) ((long) table.length * Long.BYTES / (1024 * 1024));
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+    }
+
+    // À appeler avant chaque recherche : les entrées des recherches précédentes vieillissent
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    // Données de l'entrée de cette position, ou 0 si elle n'est pas dans la table
+    public long probe(long key) {
+        int base = bucketIndex(key);
+        for (int i = 0; i < BUCKET; i++) {
+            int slot = base + 2 * i;
+            long data = (long) SLOTS.getOpaque(table, slot + 1);
+            long check = (long) SLOTS.getOpaque(table, slot);
+            if (data != 0 && (check ^ data) == key) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    public void store(long key, long move, int score, int depth, int bound) {
+        int base = bucketIndex(key);
+        int victim = base;
+        int worstValue = Integer.MAX_VALUE;
+        long previous = 0L;
+
+        for (int i = 0; i < BUCKET; i++) {
+            int slot = base + 2 * i;
+            long data = (long) SLOTS.getOpaque(table, slot + 1);
+            long check = (long) SLOTS.getOpaque(table, slot);
+            if (data == 0 || (check ^ data) == key) {
+                victim = slot;
+                previous = data;
+                break;
+            }
+            // Une entrée ancienne vaut moins qu'une entrée profonde de la recherche en cours
+            int value = depth(data) - 8 * ((age - age(data)) & 0xFF);
+            if (value < worstValue) {
+                worstValue = value;
+                victim = slot;
+            }
+        }
+
+        // Même position : on garde l'entrée plus profonde, sauf note exacte
+        if (previous != 0 && bound != EXACT && depth < depth(previous) && age(previous) == age) {
+            return;
+        }
+
+        long data = OCCUPIED
+                | ((long) (score + SCORE_OFFSET) << SCORE_SHIFT)
+                | ((long) Math.min(depth, 127) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) age << AGE_SHIFT);
+        if (move != PackedMove.NONE) {
+            data |= HAS_MOVE | PackedMove.from(move) | ((long) PackedMove.to(move) << 6);
+        } else if (previous != 0 && hasMove(previous)) {
+            data |= previous & (HAS_MOVE | 0xFFFL);
+        }
+        SLOTS.setOpaque(table, victim + 1, data);
+        SLOTS.setOpaque(table, victim, key ^ data);
+    }
+
+    private int bucketIndex(long key) {
+        return (int) ((key >>> 32) & bucketMask) * BUCKET * 2;
+    }
+
+    public static boolean hasMove(long data) { return (data & HAS_MOVE) != 0; }
+    public static int moveFrom(long data) { return (int) (data & 0x3F); }
+    public static int moveTo(long data) { return (int) ((data >>> 6) & 0x3F); }
+    public static int score(long data) { return (int) ((data >>> SCORE_SHIFT) & 0xFFFFF) - SCORE_OFFSET; }
+    public static int depth(long data) { return (int) ((data >>> DEPTH_SHIFT) & 0x7F); }
+    public static int bound(long data) { return (int) ((data >>> BOUND_SHIFT) & 0x3); }
+    private static int age(long data) { return (int) ((data >>> AGE_SHIFT) & 0xFF); }
+}
@@ -1,136 +1,592 @@
 package model;
 
+import java.util.Arrays;
+
 public class Board {
     public static final int SIZE = 10;
-    private Piece[][] grid;
+    public static final int MAX_PLY = 256;
+
+    // Une pièce par bit sur les 50 cases noires (voir Squares)
+    private long whiteMen;
+    private long blackMen;
+    private long whiteKings;
+    private long blackKings;
+    private long empty;
+    // Nombre de pièces de chaque camp, tenu à jour à chaque coup
+    private int whiteCount;
+    private int blackCount;
+    // Prises obligatoires et coups possibles de chaque camp, recalculés depuis
+    // les masques à la première demande après une modification (0 = à recalculer)
+    private static final byte STATUS_KNOWN = 1;
+    private static final byte STATUS_CAPTURES = 2;
+    private static final byte STATUS_MOVES = 4;
+    private byte whiteStatus;
+    private byte blackStatus;
+    // Matériel et valeurs des cases (PieceSquare), blancs moins noirs, tenus à jour à chaque coup
+    private int[][] pieceSquare = PieceSquare.table(true);
+    private int pieceSquareScore;
+    // Les pions du joueur humain montent vers la rangée 0
+    private boolean whiteMovesUp = true;
+    private boolean whiteToMove = true;
+    // Hash de Zobrist des pièces et du trait, tenu à jour à chaque modification
+    private long hash;
+    private final MoveGenerator generator = new MoveGenerator();
+    // Pile d'annulation de makeMove/unmakeMove
+    private final long[] undoCapturedKings = new long[MAX_PLY];
+    private final long[] undoHash = new long[MAX_PLY];
+    private final int[] undoPieceSquare = new int[MAX_PLY];
+    private int ply;
 
     public Board() {
-        grid = new Piece[SIZE][SIZE];
-    }
-
-    public void initializeBoard(String humanColor) {
-        grid = new Piece[SIZE][SIZE];
-        
-        if (humanColor.equals("white")) {
-            // Pions noirs (adversaire) en haut
-            for (int row = 0; row < 4; row++) {
-                for (int col = 0; col < SIZE; col++) {
-                    if ((row + col) % 2 == 1) {
-                        grid[row][col] = new Pawn("black", row, col);
-                    }
+        empty = Squares.BOARD_MASK;
+    }
+
+    // Copie de la position seule, pour que le moteur cherche sans toucher au plateau affiché
+    public Board(Board other) {
+        whiteMen = other.whiteMen;
+        blackMen = other.blackMen;
+        whiteKings = other.whiteKings;
+        blackKings = other.blackKings;
+        empty = other.empty;
+        whiteCount = other.whiteCount;
+        blackCount = other.blackCount;
+        whiteStatus = other.whiteStatus;
+        blackStatus = other.blackStatus;
+        pieceSquare = other.pieceSquare;
+        pieceSquareScore = other.pieceSquareScore;
+        whiteMovesUp = other.whiteMovesUp;
+        whiteToMove = other.whiteToMove;
+        hash = other.hash;
+    }
+
+    // Même position, damier retourné d'un demi-tour : les blancs avancent dans l'autre sens
+    public Board mirrored() {
+        Board board = new Board();
+        board.whiteMen = Squares.mirror(whiteMen);
+        board.blackMen = Squares.mirror(blackMen);
+        board.whiteKings = Squares.mirror(whiteKings);
+        board.blackKings = Squares.mirror(blackKings);
+        board.whiteMovesUp = !whiteMovesUp;
+        board.whiteToMove = whiteToMove;
+        board.updateCounts();
+        board.hash = board.computeHash();
+        return board;
+    }
+
+    public void initializeBoard(PieceColor humanColor) {
+        whiteKings = blackKings = 0L;
+        whiteMovesUp = humanColor == PieceColor.WHITE;
+
+        // Pions de l'adversaire en haut, pions du joueur en bas
+        long top = rowsMask(0, 4);
+        long bottom = rowsMask(6, SIZE);
+        if (humanColor == PieceColor.WHITE) {
+            blackMen = top;
+            whiteMen = bottom;
+        } else {
+            whiteMen = top;
+            blackMen = bottom;
+        }
+        whiteToMove = true;
+        updateCounts();
+        hash = computeHash();
+    }
+
+    private static long rowsMask(int fromRow, int toRow) {
+        long mask = 0L;
+        for (int row = fromRow; row < toRow; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int field = Squares.field(row, col);
+                if (field >= 0) {
+                    mask |= Squares.bit(field);
                 }
             }
-            // Pions blancs (joueur) en bas
-            for (int row = 6; row < SIZE; row++) {
-                for (int col = 0; col < SIZE; col++) {
-                    if ((row + col) % 2 == 1) {
-                        grid[row][col] = new Pawn("white", row, col);
-                    }
-                }
+        }
+        return mask;
+    }
+
+    private void updateEmpty() {
+        empty = Squares.BOARD_MASK & ~(whiteMen | blackMen | whiteKings | blackKings);
+        whiteStatus = blackStatus = 0;
+    }
+
+    // Après un changement complet de position
+    private void updateCounts() {
+        whiteCount = Long.bitCount(whiteMen | whiteKings);
+        blackCount = Long.bitCount(blackMen | blackKings);
+        pieceSquare = PieceSquare.table(whiteMovesUp);
+        pieceSquareScore = PieceSquare.sum(pieceSquare, Zobrist.WHITE_MAN, whiteMen)
+                + PieceSquare.sum(pieceSquare, Zobrist.BLACK_MAN, blackMen)
+                + PieceSquare.sum(pieceSquare, Zobrist.WHITE_KING, whiteKings)
+                + PieceSquare.sum(pieceSquare, Zobrist.BLACK_KING, blackKings);
+        updateEmpty();
+    }
+
+    private long computeHash() {
+        long h = Zobrist.keys(Zobrist.WHITE_MAN, whiteMen)
+                ^ Zobrist.keys(Zobrist.BLACK_MAN, blackMen)
+                ^ Zobrist.keys(Zobrist.WHITE_KING, whiteKings)
+                ^ Zobrist.keys(Zobrist.BLACK_KING, blackKings);
+        return whiteToMove ? h : h ^ Zobrist.BLACK_TO_MOVE;
+    }
+
+    public Piece getPiece(int row, int col) {
+        int field = Squares.field(row, col);
+        if (field < 0) {
+            return null;
+        }
+        long bit = Squares.bit(field);
+        if ((empty & bit) != 0) return null;
+        if ((whiteMen & bit) != 0) return Pawn.WHITE;
+        if ((blackMen & bit) != 0) return Pawn.BLACK;
+        if ((whiteKings & bit) != 0) return Queen.WHITE;
+        return Queen.BLACK;
+    }
+
+    public void movePiece(int fromRow, int fromCol, int toRow, int toCol) {
+        int from = Squares.field(fromRow, fromCol);
+        int to = Squares.field(toRow, toCol);
+        if (from < 0 || to < 0) return;
+        long fromBit = Squares.bit(from);
+        long toBit = Squares.bit(to);
+        if ((empty & fromBit) != 0) return;
+
+        if ((whiteMen & fromBit) != 0) {
+            whiteMen &= ~fromBit;
+            hash ^= Zobrist.key(Zobrist.WHITE_MAN, from);
+            // Promotion en dame
+            if (toRow == getPromotionRow(PieceColor.WHITE)) {
+                whiteKings |= toBit;
+                hash ^= Zobrist.key(Zobrist.WHITE_KING, to);
+            } else {
+                whiteMen |= toBit;
+                hash ^= Zobrist.key(Zobrist.WHITE_MAN, to);
             }
+        } else if ((blackMen & fromBit) != 0) {
+            blackMen &= ~fromBit;
+            hash ^= Zobrist.key(Zobrist.BLACK_MAN, from);
+            if (toRow == getPromotionRow(PieceColor.BLACK)) {
+                blackKings |= toBit;
+                hash ^= Zobrist.key(Zobrist.BLACK_KING, to);
+            } else {
+                blackMen |= toBit;
+                hash ^= Zobrist.key(Zobrist.BLACK_MAN, to);
+            }
+        } else if ((whiteKings & fromBit) != 0) {
+            whiteKings = (whiteKings & ~fromBit) | toBit;
+            hash ^= Zobrist.key(Zobrist.WHITE_KING, from) ^ Zobrist.key(Zobrist.WHITE_KING, to);
         } else {
-            // Pions blancs (adversaire) en haut
-            for (int row = 0; row < 4; row++) {
-                for (int col = 0; col < SIZE; col++) {
-                    if ((row + col) % 2 == 1) {
-                        grid[row][col] = new Pawn("white", row, col);
-                    }
+            blackKings = (blackKings & ~fromBit) | toBit;
+            hash ^= Zobrist.key(Zobrist.BLACK_KING, from) ^ Zobrist.key(Zobrist.BLACK_KING, to);
+        }
+        updateCounts();
+    }
+
+    public void capturePiece(int row, int col) {
+        int field = Squares.field(row, col);
+        if (field >= 0) {
+            long bit = Squares.bit(field);
+            hash ^= Zobrist.keys(Zobrist.WHITE_MAN, whiteMen & bit)
+                    ^ Zobrist.keys(Zobrist.BLACK_MAN, blackMen & bit)
+                    ^ Zobrist.keys(Zobrist.WHITE_KING, whiteKings & bit)
+                    ^ Zobrist.keys(Zobrist.BLACK_KING, blackKings & bit);
+            whiteMen &= ~bit;
+            blackMen &= ~bit;
+            whiteKings &= ~bit;
+            blackKings &= ~bit;
+            updateCounts();
+        }
+    }
+
+    // Joue un coup complet : déplacement, retrait des pièces prises, promotion
+    public void applyMove(long move) {
+        doMove(move);
+    }
+
+    // Comme applyMove, mais passe le trait et garde de quoi annuler le coup
+    public void makeMove(long move) {
+        undoHash[ply] = hash;
+        undoPieceSquare[ply] = pieceSquareScore;
+        undoCapturedKings[ply++] = doMove(move);
+        whiteToMove = !whiteToMove;
+        hash ^= Zobrist.BLACK_TO_MOVE;
+    }
+
+    public void unmakeMove(long move) {
+        long capturedKings = undoCapturedKings[--ply];
+        hash = undoHash[ply];
+        pieceSquareScore = undoPieceSquare[ply];
+        whiteToMove = !whiteToMove;
+        long fromBit = Squares.bit(PackedMove.from(move));
+        long toBit = Squares.bit(PackedMove.to(move));
+        long captured = PackedMove.captured(move);
+        long capturedMen = captured & ~capturedKings;
+        boolean promotion = PackedMove.isPromotion(move);
+
+        if (((whiteMen | whiteKings) & toBit) != 0) {
+            if (promotion) {
+                whiteKings &= ~toBit;
+                whiteMen |= fromBit;
+            } else if ((whiteKings & toBit) != 0) {
+                whiteKings = (whiteKings & ~toBit) | fromBit;
+            } else {
+                whiteMen = (whiteMen & ~toBit) | fromBit;
+            }
+            blackMen |= capturedMen;
+            blackKings |= capturedKings;
+            blackCount += Long.bitCount(captured);
+        } else {
+            if (promotion) {
+                blackKings &= ~toBit;
+                blackMen |= fromBit;
+            } else if ((blackKings & toBit) != 0) {
+                blackKings = (blackKings & ~toBit) | fromBit;
+            } else {
+                blackMen = (blackMen & ~toBit) | fromBit;
+            }
+            whiteMen |= capturedMen;
+            whiteKings |= capturedKings;
+            whiteCount += Long.bitCount(captured);
+        }
+        updateEmpty();
+    }
+
+    // Retourne les dames prises : c'est tout ce qu'il faut retenir pour annuler le coup
+    private long doMove(long move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        long fromBit = Squares.bit(from);
+        long toBit = Squares.bit(to);
+        long captured = PackedMove.captured(move);
+        long keep = ~captured;
+        boolean promotion = PackedMove.isPromotion(move);
+        long capturedKings;
+
+        if (((whiteMen | whiteKings) & fromBit) != 0) {
+            if ((whiteMen & fromBit) != 0) {
+                whiteMen &= ~fromBit;
+                hash ^= Zobrist.key(Zobrist.WHITE_MAN, from);
+                pieceSquareScore -= pieceSquare[Zobrist.WHITE_MAN][from];
+                if (promotion) {
+                    whiteKings |= toBit;
+                    hash ^= Zobrist.key(Zobrist.WHITE_KING, to);
+                    pieceSquareScore += pieceSquare[Zobrist.WHITE_KING][to];
+                } else {
+                    whiteMen |= toBit;
+                    hash ^= Zobrist.key(Zobrist.WHITE_MAN, to);
+                    pieceSquareScore += pieceSquare[Zobrist.WHITE_MAN][to];
                 }
+            } else {
+                whiteKings = (whiteKings & ~fromBit) | toBit;
+                hash ^= Zobrist.key(Zobrist.WHITE_KING, from) ^ Zobrist.key(Zobrist.WHITE_KING, to);
+                pieceSquareScore += pieceSquare[Zobrist.WHITE_KING][to] - pieceSquare[Zobrist.WHITE_KING][from];
             }
-            // Pions noirs (joueur) en bas
-            for (int row = 6; row < SIZE; row++) {
-                for (int col = 0; col < SIZE; col++) {
-                    if ((row + col) % 2 == 1) {
-                        grid[row][col] = new Pawn("black", row, col);
-                    }
+            capturedKings = blackKings & captured;
+            if (captured != 0) {
+                hash ^= Zobrist.keys(Zobrist.BLACK_MAN, blackMen & captured)
+                        ^ Zobrist.keys(Zobrist.BLACK_KING, capturedKings);
+                pieceSquareScore -= PieceSquare.sum(pieceSquare, Zobrist.BLACK_MAN, blackMen & captured)
+                        + PieceSquare.sum(pieceSquare, Zobrist.BLACK_KING, capturedKings);
+                blackMen &= keep;
+                blackKings &= keep;
+                blackCount -= Long.bitCount(captured);
+            }
+        } else {
+            if ((blackMen & fromBit) != 0) {
+                blackMen &= ~fromBit;
+                hash ^= Zobrist.key(Zobrist.BLACK_MAN, from);
+                pieceSquareScore -= pieceSquare[Zobrist.BLACK_MAN][from];
+                if (promotion) {
+                    blackKings |= toBit;
+                    hash ^= Zobrist.key(Zobrist.BLACK_KING, to);
+                    pieceSquareScore += pieceSquare[Zobrist.BLACK_KING][to];
+                } else {
+                    blackMen |= toBit;
+                    hash ^= Zobrist.key(Zobrist.BLACK_MAN, to);
+                    pieceSquareScore += pieceSquare[Zobrist.BLACK_MAN][to];
                 }
+            } else {
+                blackKings = (blackKings & ~fromBit) | toBit;
+                hash ^= Zobrist.key(Zobrist.BLACK_KING, from) ^ Zobrist.key(Zobrist.BLACK_KING, to);
+                pieceSquareScore += pieceSquare[Zobrist.BLACK_KING][to] - pieceSquare[Zobrist.BLACK_KING][from];
+            }
+            capturedKings = whiteKings & captured;
+            if (captured != 0) {
+                hash ^= Zobrist.keys(Zobrist.WHITE_MAN, whiteMen & captured)
+                        ^ Zobrist.keys(Zobrist.WHITE_KING, capturedKings);
+                pieceSquareScore -= PieceSquare.sum(pieceSquare, Zobrist.WHITE_MAN, whiteMen & captured)
+                        + PieceSquare.sum(pieceSquare, Zobrist.WHITE_KING, capturedKings);
+                whiteMen &= keep;
+                whiteKings &= keep;
+                whiteCount -= Long.bitCount(captured);
             }
         }
+        updateEmpty();
+        return capturedKings;
     }
 
-    public Piece getPiece(int row, int col) {
-        if (row >= 0 && row < SIZE && col >= 0 && col < SIZE) {
-            return grid[row][col];
+    public void generateLegalMoves(PieceColor color, MoveList out) {
+        if (color == PieceColor.WHITE) {
+            generator.generate(whiteMen, whiteKings, blackMen | blackKings, empty,
+                               whiteMovesUp, Squares.rowMask(getPromotionRow(color)), out);
+        } else {
+            generator.generate(blackMen, blackKings, whiteMen | whiteKings, empty,
+                               !whiteMovesUp, Squares.rowMask(getPromotionRow(color)), out);
         }
-        return null;
     }
 
-    public void movePiece(int fromRow, int fromCol, int toRow, int toCol) {
-        Piece piece = grid[fromRow][fromCol];
-        if (piece == null) return;
-        
-        grid[fromRow][fromCol] = null;
-        grid[toRow][toCol] = piece;
-        piece.setPosition(toRow, toCol);
-
-        // Promotion en dame
-        if (piece instanceof Pawn) {
-            if ((piece.getColor().equals("white") && toRow == 0) || 
-                (piece.getColor().equals("black") && toRow == SIZE - 1)) {
-                grid[toRow][toCol] = new Queen(piece.getColor(), toRow, toCol);
+    // Coups du camp au trait
+    public void generateLegalMoves(MoveList out) {
+        generateLegalMoves(getSideToMove(), out);
+    }
+
+    public MoveList generateLegalMoves(PieceColor color) {
+        MoveList moves = MoveList.withPaths();
+        generateLegalMoves(color, moves);
+        return moves;
+    }
+
+    public long getHash() { return hash; }
+
+    // Matériel et valeurs des cases, du point de vue des blancs
+    public int getPieceSquareScore() { return pieceSquareScore; }
+
+    public boolean isWhiteToMove() { return whiteToMove; }
+
+    public PieceColor getSideToMove() {
+        return whiteToMove ? PieceColor.WHITE : PieceColor.BLACK;
+    }
+
+    public void setSideToMove(PieceColor color) {
+        boolean white = color == PieceColor.WHITE;
+        if (white != whiteToMove) {
+            whiteToMove = white;
+            hash ^= Zobrist.BLACK_TO_MOVE;
+        }
+    }
+
+    public boolean movesUp(PieceColor color) {
+        return (color == PieceColor.WHITE) == whiteMovesUp;
+    }
+
+    public int getPromotionRow(PieceColor color) {
+        return movesUp(color) ? 0 : SIZE - 1;
+    }
+
+    public boolean hasMandatoryCaptures(PieceColor color) {
+        return (status(color) & STATUS_CAPTURES) != 0;
+    }
+
+    // Le camp a au moins un coup légal, prise ou déplacement simple
+    public boolean hasLegalMoves(PieceColor color) {
+        return (status(color) & STATUS_MOVES) != 0;
+    }
+
+    public int getPieceCount(PieceColor color) {
+        return color == PieceColor.WHITE ? whiteCount : blackCount;
+    }
+
+    private byte status(PieceColor color) {
+        boolean white = color == PieceColor.WHITE;
+        byte status = white ? whiteStatus : blackStatus;
+        if (status == 0) {
+            status = STATUS_KNOWN;
+            if (findCaptures(color)) {
+                status |= STATUS_CAPTURES | STATUS_MOVES;
+            } else if (findQuietMoves(color)) {
+                status |= STATUS_MOVES;
+            }
+            if (white) {
+                whiteStatus = status;
+            } else {
+                blackStatus = status;
             }
         }
+        return status;
     }
 
-    public void capturePiece(int row, int col) {
-        if (row >= 0 && row < SIZE && col >= 0 && col < SIZE) {
-            grid[row][col] = null;
+    private boolean findQuietMoves(PieceColor color) {
+        boolean white = color == PieceColor.WHITE;
+        long men = white ? whiteMen : blackMen;
+        long kings = white ? whiteKings : blackKings;
+
+        // Pions vers l'avant, dames dans les 4 directions : une case voisine vide suffit
+        boolean up = movesUp(color);
+        long targets = Squares.shift(men, up ? Squares.UP_LEFT : Squares.DOWN_LEFT)
+                | Squares.shift(men, up ? Squares.UP_RIGHT : Squares.DOWN_RIGHT);
+        for (int dir : Squares.DIRECTIONS) {
+            targets |= Squares.shift(kings, dir);
         }
+        return (targets & empty) != 0;
     }
 
-    public boolean hasMandatoryCaptures(String color) {
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                Piece piece = grid[row][col];
-                if (piece != null && piece.getColor().equals(color)) {
-                    if (piece.hasAvailableCaptures(this)) {
-                        return true;
-                    }
+    private boolean findCaptures(PieceColor color) {
+        boolean white = color == PieceColor.WHITE;
+        long men = white ? whiteMen : blackMen;
+        long kings = white ? whiteKings : blackKings;
+        long opponents = white ? (blackMen | blackKings) : (whiteMen | whiteKings);
+
+        // Pions : une pièce adverse voisine suivie d'une case vide, dans les 4 directions
+        for (int dir : Squares.DIRECTIONS) {
+            long victims = Squares.shift(men, dir) & opponents;
+            if ((Squares.shift(victims, dir) & empty) != 0) {
+                return true;
+            }
+        }
+
+        // Dames : la première pièce de chaque diagonale, si elle est adverse et suivie d'une case vide
+        while (kings != 0) {
+            int from = Long.numberOfTrailingZeros(kings);
+            kings &= kings - 1;
+            for (int d = 0; d < Squares.DIRECTIONS.length; d++) {
+                int victim = Squares.firstBlocker(from, d, ~empty);
+                if (victim >= 0 && (opponents & Squares.bit(victim)) != 0
+                        && Squares.slide(victim, d, ~empty) != 0) {
+                    return true;
                 }
             }
         }
         return false;
     }
 
-    public String[][] getBoardState() {
-        String[][] state = new String[SIZE][SIZE];
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                Piece piece = grid[row][col];
-                if (piece == null) {
-                    state[row][col] = "empty";
-                } else if (piece instanceof Pawn) {
-                    state[row][col] = piece.getColor();
-                } else if (piece instanceof Queen) {
-                    state[row][col] = piece.getColor() + "_queen";
+    public long getWhiteMen() { return whiteMen; }
+    public long getBlackMen() { return blackMen; }
+    public long getWhiteKings() { return whiteKings; }
+    public long getBlackKings() { return blackKings; }
+    public long getEmpty() { return empty; }
+
+    public long getPieces(PieceColor color) {
+        return color == PieceColor.WHITE ? whiteMen | whiteKings : blackMen | blackKings;
+    }
+
+    // Position donnée par ses masques, sans passer par le texte (tables de finales du moteur)
+    public void setPosition(long whiteMen, long blackMen, long whiteKings, long blackKings,
+                            boolean whiteToMove, boolean whiteMovesUp) {
+        this.whiteMen = whiteMen;
+        this.blackMen = blackMen;
+        this.whiteKings = whiteKings;
+        this.blackKings = blackKings;
+        this.whiteToMove = whiteToMove;
+        this.whiteMovesUp = whiteMovesUp;
+        updateCounts();
+        hash = computeHash();
+    }
+
+    // Position au format FEN des dames, par exemple "W:W31-50:B1-20" ou "B:WK45,32:B7,K12".
+    // Les blancs y montent vers la case 1, comme après initializeBoard(PieceColor.WHITE).
+    public void setFen(String fen) {
+        String[] parts = fen.trim().replace(".", "").split(":");
+        if (parts.length == 0 || parts[0].isEmpty()) {
+            throw new IllegalArgumentException("FEN vide");
+        }
+        whiteMen = blackMen = whiteKings = blackKings = 0L;
+        whiteMovesUp = true;
+        whiteToMove = parts[0].trim().equalsIgnoreCase("W");
+
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i].trim();
+            if (part.isEmpty()) continue;
+            boolean white = Character.toUpperCase(part.charAt(0)) == 'W';
+            for (String token : part.substring(1).split(",")) {
+                token = token.trim();
+                if (token.isEmpty()) continue;
+                boolean king = Character.toUpperCase(token.charAt(0)) == 'K';
+                if (king) {
+                    token = token.substring(1);
+                }
+                String[] range = token.split("-");
+                int first = Integer.parseInt(range[0].trim());
+                int last = range.length > 1 ? Integer.parseInt(range[1].trim()) : first;
+                for (int number = first; number <= last; number++) {
+                    if (number < 1 || number > 50) {
+                        throw new IllegalArgumentException("Case invalide dans le FEN : " + number);
+                    }
+                    long bit = Squares.bit(Squares.fromNumber(number));
+                    if (white) {
+                        if (king) {
+                            whiteKings |= bit;
+                        } else {
+                            whiteMen |= bit;
+                        }
+                    } else if (king) {
+                        blackKings |= bit;
+                    } else {
+                        blackMen |= bit;
+                    }
                 }
             }
         }
+        updateCounts();
+        hash = computeHash();
+    }
+
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(whiteToMove ? "W" : "B");
+        fen.append(":W");
+        appendFenSquares(fen, whiteMen, whiteKings);
+        fen.append(":B");
+        appendFenSquares(fen, blackMen, blackKings);
+        return fen.toString();
+    }
+
+    private static void appendFenSquares(StringBuilder fen, long men, long kings) {
+        boolean first = true;
+        for (int number = 1; number <= 50; number++) {
+            long bit = Squares.bit(Squares.fromNumber(number));
+            if (((men | kings) & bit) == 0) continue;
+            if (!first) fen.append(',');
+            if ((kings & bit) != 0) fen.append('K');
+            fen.append(number);
+            first = false;
+        }
+    }
+
+    public String[][] getBoardState() {
+        String[][] state = new String[SIZE][SIZE];
+        for (String[] row : state) {
+            Arrays.fill(row, "empty");
+        }
+        fillState(state, whiteMen, "white");
+        fillState(state, blackMen, "black");
+        fillState(state, whiteKings, "white_queen");
+        fillState(state, blackKings, "black_queen");
         return state;
     }
 
+    private static void fillState(String[][] state, long pieces, String value) {
+        while (pieces != 0) {
+            int field = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            state[Squares.row(field)][Squares.col(field)] = value;
+        }
+    }
+
     public void setBoardState(String[][] state) {
-        grid = new Piece[SIZE][SIZE];
+        whiteMen = blackMen = whiteKings = blackKings = 0L;
         for (int row = 0; row < SIZE; row++) {
             for (int col = 0; col < SIZE; col++) {
-                String pieceStr = state[row][col];
-                switch (pieceStr) {
+                int field = Squares.field(row, col);
+                if (field < 0) continue;
+                long bit = Squares.bit(field);
+                switch (state[row][col]) {
                     case "white":
-                        grid[row][col] = new Pawn("white", row, col);
+                        whiteMen |= bit;
                         break;
                     case "black":
-                        grid[row][col] = new Pawn("black", row, col);
+                        blackMen |= bit;
                         break;
                     case "white_queen":
-                        grid[row][col] = new Queen("white", row, col);
+                        whiteKings |= bit;
                         break;
                     case "black_queen":
-                        grid[row][col] = new Queen("black", row, col);
+                        blackKings |= bit;
                         break;
                     default:
                         break;
                 }
             }
         }
+        updateCounts();
+        hash = computeHash();
     }
-}
\ No newline at end of file
+}
@@ -1,33 +1,98 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import engine.CancellationToken;
+import engine.EngineExecutor;
+import engine.Evaluator;
+import engine.MonteCarloSearch;
+import engine.OpeningBook;
+import engine.ProofNumberSearch;
+import engine.Search;
+import engine.Tablebase;
+import engine.TablebaseIndex;
 import javax.swing.SwingUtilities;
 import view.GameView;
 
 public class Game {
+    // Petite pause des niveaux facile et moyen pour que le coup reste lisible
+    private static final long MOVE_DELAY_MS = 500;
+    private static final long SEARCH_TIMEOUT_MARGIN_MS = 1000;
+    // Temps et mémoire de la preuve d'un gain annoncé par la recherche
+    private static final long PROOF_TIME_MS = 1000;
+    private static final int PROOF_MEMORY_MB = 32;
+    
     private final Board board;
-    private String currentPlayer;
-    private final String humanPlayerColor;
-    private boolean gameOver;
-    private String winner;
+    private PieceColor currentPlayer;
+    private final PieceColor humanPlayerColor;
+    private volatile boolean gameOver;
+    private PieceColor winner;
     private final String difficulty;
     private GameView view;
-    private boolean isHumanTurn;
+    // Écrit par les fils du moteur, lu par l'interface
+    private volatile boolean isHumanTurn;
+    
+    private final Random random = new Random();
+    private final Search search = new Search();
+    // Autre moteur, choisi au menu : Monte-Carlo plutôt qu'alpha-beta
+    private final MonteCarloSearch monteCarlo = new MonteCarloSearch();
+    private final Evaluator evaluator = new Evaluator();
+    private ProofNumberSearch solver;
+    // Tables de finales, chargées une fois hors de l'interface ; null avant ou sans tables
+    private volatile Tablebase tablebase;
+    // Réflexion du niveau difficile pendant le tour du joueur, sur sa réponse la plus probable
+    private boolean ponderingEnabled = true;
+    private volatile Future<?> ponderTask;
+    private volatile CancellationToken ponderToken;
+    private volatile long ponderHash;
+    private volatile long ponderMove;
 
-    public Game(String humanPlayerColor, String difficulty) {
+    // Travaux de l'ordinateur pour cette partie, tous annulés par dispose()
+    private final EngineExecutor engine = EngineExecutor.get();
+    private final CancellationToken gameToken = new CancellationToken();
+    
+    // Coups légaux du camp au trait, avec le chemin de chaque rafle
+    private final MoveList legalMoves = MoveList.withPaths();
+    // Position (hash) pour laquelle legalMoves a été générée
+    private long legalMovesHash;
+    private boolean legalMovesReady;
+    // Rafle en cours du joueur humain : case de départ et sauts déjà joués
+    private final int[] humanPath = new int[MoveList.MAX_CAPTURES + 1];
+    private int humanOrigin;
+    private int captureStep;
+
+    public Game(PieceColor humanPlayerColor, String difficulty) {
         this.board = new Board();
         this.humanPlayerColor = humanPlayerColor;
         this.gameOver = false;
         this.winner = null;
         this.difficulty = difficulty;
         
-        this.currentPlayer = "white";
-        this.isHumanTurn = humanPlayerColor.equals("white");
+        this.currentPlayer = PieceColor.WHITE;
+        this.isHumanTurn = humanPlayerColor == PieceColor.WHITE;
         
         board.initializeBoard(humanPlayerColor);
+        // Le niveau difficile joue ses premiers coups dans la bibliothèque et ses finales
+        // dans les tables, s'il y en a
+        if (difficulty.equals("hard")) {
+            search.setOpeningBook(OpeningBook.openDefault());
+        }
+        engine.submit(gameToken, this::loadTablebase);
+    }
+
+    // Lecture des fichiers sur un fil du moteur : l'ouverture de la fenêtre n'attend pas
+    private void loadTablebase() {
+        Tablebase tables = Tablebase.getDefault();
+        if (difficulty.equals("hard")) {
+            search.setTablebase(tables);
+        } else if (difficulty.equals("mcts")) {
+            monteCarlo.setTablebase(tables);
+        }
+        tablebase = tables;
     }
 
     public void setView(GameView view) {
@@ -43,247 +108,297 @@ public class Game {
             return false;
         }
 
-        Piece piece = board.getPiece(fromRow, fromCol);
-        if (piece == null || !piece.getColor().equals(currentPlayer)) {
+        int from = Squares.field(fromRow, fromCol);
+        int to = Squares.field(toRow, toCol);
+        if (from < 0 || to < 0) {
             return false;
         }
-
-        boolean mandatoryCaptures = board.hasMandatoryCaptures(currentPlayer);
         
-        if (piece.canCapture(toRow, toCol, board)) {
-            if (mandatoryCaptures) {
-                if (piece instanceof Queen) {
-                    int[] capturedPos = findCapturedPieceForQueen(fromRow, fromCol, toRow, toCol);
-                    if (capturedPos != null) {
-                        board.movePiece(fromRow, fromCol, toRow, toCol);
-                        board.capturePiece(capturedPos[0], capturedPos[1]);
-                    }
-                } else {
-                    int middleRow = (fromRow + toRow) / 2;
-                    int middleCol = (fromCol + toCol) / 2;
-                    board.movePiece(fromRow, fromCol, toRow, toCol);
-                    board.capturePiece(middleRow, middleCol);
-                }
-                
-                // Vérifier si d'autres captures sont possibles
-                Piece movedPiece = board.getPiece(toRow, toCol);
-                if (movedPiece == null || !movedPiece.hasAvailableCaptures(board)) {
-                    switchPlayer();
-                }
-                return true;
-            }
+        if (captureStep == 0) {
+            refreshLegalMoves();
+            humanOrigin = from;
+        } else if (from != humanPath[captureStep - 1]) {
+            // Une rafle commencée doit être terminée avec la même pièce
+            return false;
+        }
+        
+        int index = findHumanMove(humanOrigin, to);
+        if (index < 0) {
             return false;
-        } else if (!mandatoryCaptures && piece.isValidMove(toRow, toCol, board)) {
-            board.movePiece(fromRow, fromCol, toRow, toCol);
-            switchPlayer();
-            return true;
         }
         
-        return false;
+        board.applyMove(jumpAt(index, captureStep));
+        humanPath[captureStep] = to;
+        captureStep++;
+        
+        if (captureStep == legalMoves.getPathLength(index)) {
+            captureStep = 0;
+            switchPlayer();
+        }
+        return true;
     }
 
-    private int[] findCapturedPieceForQueen(int fromRow, int fromCol, int toRow, int toCol) {
-        int rowDiff = toRow - fromRow;
-        int colDiff = toCol - fromCol;
-        if (Math.abs(rowDiff) != Math.abs(colDiff)) {
-            return null;
+    // Premier coup légal qui suit les sauts déjà joués puis arrive sur la case to
+    private int findHumanMove(int origin, int to) {
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (followsHumanPath(i, origin) && legalMoves.getPathField(i, captureStep) == to) {
+                return i;
+            }
         }
+        return -1;
+    }
 
-        int rowStep = rowDiff > 0 ? 1 : -1;
-        int colStep = colDiff > 0 ? 1 : -1;
-        int currentRow = fromRow + rowStep;
-        int currentCol = fromCol + colStep;
+    private boolean followsHumanPath(int index, int origin) {
+        if (PackedMove.from(legalMoves.get(index)) != origin
+                || legalMoves.getPathLength(index) <= captureStep) {
+            return false;
+        }
+        for (int step = 0; step < captureStep; step++) {
+            if (legalMoves.getPathField(index, step) != humanPath[step]) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        while (currentRow != toRow && currentCol != toCol) {
-            Piece piece = board.getPiece(currentRow, currentCol);
-            if (piece != null && !piece.getColor().equals(currentPlayer)) {
-                return new int[]{currentRow, currentCol};
+    // Cases où la pièce en (row, col) peut aller au prochain saut, sous forme de masque
+    public long getTargets(int row, int col) {
+        if (gameOver || !isHumanTurn) {
+            return 0L;
+        }
+        int from = Squares.field(row, col);
+        if (captureStep == 0) {
+            refreshLegalMoves();
+        } else if (from != humanPath[captureStep - 1]) {
+            return 0L;
+        }
+        
+        int origin = captureStep == 0 ? from : humanOrigin;
+        long targets = 0L;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (followsHumanPath(i, origin)) {
+                targets |= Squares.bit(legalMoves.getPathField(i, captureStep));
             }
-            currentRow += rowStep;
-            currentCol += colStep;
         }
-        return null;
+        return targets;
+    }
+
+    // Chaque clic et chaque sélection réutilisent les coups de la position courante
+    private void refreshLegalMoves() {
+        if (!legalMovesReady || legalMovesHash != board.getHash()) {
+            board.generateLegalMoves(currentPlayer, legalMoves);
+            legalMovesHash = board.getHash();
+            legalMovesReady = true;
+        }
+    }
+
+    public boolean isCapturing() {
+        return captureStep > 0;
+    }
+
+    // Saut numéro step du coup legalMoves[index], joué comme un coup simple :
+    // la pièce sautée est retirée tout de suite et la promotion n'a lieu qu'au dernier saut
+    private long jumpAt(int index, int step) {
+        long move = legalMoves.get(index);
+        int from = step == 0 ? PackedMove.from(move) : legalMoves.getPathField(index, step - 1);
+        int to = legalMoves.getPathField(index, step);
+        boolean last = step == legalMoves.getPathLength(index) - 1;
+        long captured = PackedMove.captured(move) & Squares.between(from, to);
+        return PackedMove.encode(from, to, captured, last && PackedMove.isPromotion(move));
     }
 
     public void computerTurn() {
-        new Thread(() -> {
+        // La réflexion sur le coup du joueur passe au temps normal ou s'arrête tout de suite
+        boolean ponderHit = signalPondering();
+        CancellationToken turn = gameToken.child(0);
+        engine.submit(turn, () -> playComputerTurn(turn, ponderHit));
+    }
+
+    // Sur un fil du moteur : choix du coup, puis animation sur un fil virtuel
+    private void playComputerTurn(CancellationToken turn, boolean ponderHit) {
+        long pondered = awaitPondering(ponderHit);
+        refreshLegalMoves();
+        if (turn.isCancelled()) {
+            return;
+        }
+        if (legalMoves.isEmpty()) {
+            switchPlayer();
+            endComputerTurn();
+            return;
+        }
+
+        int index;
+        long delay = MOVE_DELAY_MS;
+        if (isForcedMove()) {
+            // Un seul coup possible : on le joue sans réfléchir
+            index = 0;
+            delay = 0;
+        } else {
+            // Les prises sont obligatoires : la liste ne contient alors que les meilleures rafles
+            switch (difficulty) {
+                case "easy":
+                    index = chooseRandomMove();
+                    break;
+                case "medium":
+                    index = chooseMediumMove();
+                    break;
+                case "hard":
+                    index = chooseHardMove(pondered, turn);
+                    delay = 0;
+                    break;
+                case "mcts":
+                    index = chooseMonteCarloMove(turn);
+                    delay = 0;
+                    break;
+                default:
+                    index = chooseRandomMove();
+            }
+        }
+        if (turn.isCancelled()) {
+            return;
+        }
+
+        long pause = delay;
+        engine.submitWait(turn, () -> {
             try {
-                Thread.sleep(2000);
-                
-                List<Move> captureSequence = findBestCaptureSequence();
-                if (!captureSequence.isEmpty()) {
-                    executeCaptureSequence(captureSequence);
-                } else {
-                    // Pas de captures possibles, faire un mouvement normal
-                    switch (difficulty) {
-                        case "easy":
-                            makeRandomMove();
-                            break;
-                        case "medium":
-                            makeMediumMove();
-                            break;
-                        case "hard":
-                            makeHardMove();
-                            break;
-                        default:
-                            makeRandomMove();
-                    }
-                }
-                
-                SwingUtilities.invokeLater(() -> {
-                    view.drawBoard(board);
-                    updateStatus();
-                    checkGameOver();
-                    if (gameOver) {
-                        endGame();
-                    }
-                });
+                Thread.sleep(pause);
+                playComputerMove(index, turn);
             } catch (InterruptedException e) {
-                Logger.getLogger(Game.class.getName()).log(Level.SEVERE, null, e);
+                Thread.currentThread().interrupt();
+                return;
             }
-        }).start();
+            if (!turn.isCancelled()) {
+                endComputerTurn();
+            }
+        });
     }
 
-    private List<Move> findBestCaptureSequence() {
-        List<Move> bestSequence = new ArrayList<>();
-        String[][] originalState = board.getBoardState();
-        
-        for (int row = 0; row < Board.SIZE; row++) {
-            for (int col = 0; col < Board.SIZE; col++) {
-                Piece piece = board.getPiece(row, col);
-                if (piece != null && piece.getColor().equals(currentPlayer)) {
-                    List<Move> currentSequence = new ArrayList<>();
-                    findCaptureSequenceRecursive(piece, row, col, currentSequence, bestSequence, originalState);
-                }
+    private void endComputerTurn() {
+        SwingUtilities.invokeLater(() -> {
+            view.drawBoard(board);
+            updateStatus();
+            checkGameOver();
+            if (gameOver) {
+                endGame();
             }
-        }
-        
-        return bestSequence;
+        });
     }
 
-    private void findCaptureSequenceRecursive(Piece piece, int row, int col, 
-                                           List<Move> currentSequence, 
-                                           List<Move> bestSequence,
-                                           String[][] originalState) {
-        boolean foundCapture = false;
-        
-        for (int[] dir : piece.getCaptureDirections()) {
-            if (piece instanceof Queen) {
-                for (int distance = 1; distance < Board.SIZE; distance++) {
-                    int newRow = row + dir[0] * distance;
-                    int newCol = col + dir[1] * distance;
-                    
-                    if (newRow < 0 || newRow >= Board.SIZE || newCol < 0 || newCol >= Board.SIZE) {
-                        break;
-                    }
-                    
-                    if (piece.canCapture(newRow, newCol, board)) {
-                        Move move = new Move(row, col, newRow, newCol);
-                        currentSequence.add(move);
-                        foundCapture = true;
-                        
-                        // Sauvegarder l'état actuel
-                        String[][] savedState = board.getBoardState();
-                        
-                        // Effectuer le mouvement
-                        if (piece instanceof Queen) {
-                            int[] capturedPos = findCapturedPieceForQueen(row, col, newRow, newCol);
-                            board.movePiece(row, col, newRow, newCol);
-                            board.capturePiece(capturedPos[0], capturedPos[1]);
-                        } else {
-                            int middleRow = (row + newRow) / 2;
-                            int middleCol = (col + newCol) / 2;
-                            board.movePiece(row, col, newRow, newCol);
-                            board.capturePiece(middleRow, middleCol);
-                        }
-                        
-                        // Vérifier les captures supplémentaires
-                        Piece movedPiece = board.getPiece(newRow, newCol);
-                        if (movedPiece != null) {
-                            findCaptureSequenceRecursive(movedPiece, newRow, newCol, 
-                                                      currentSequence, bestSequence, originalState);
-                        }
-                        
-                        // Restaurer l'état original
-                        board.setBoardState(savedState);
-                        currentSequence.remove(currentSequence.size() - 1);
-                    }
-                }
-            } else {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-                if (newRow >= 0 && newRow < Board.SIZE && newCol >= 0 && newCol < Board.SIZE) {
-                    if (piece.canCapture(newRow, newCol, board)) {
-                        Move move = new Move(row, col, newRow, newCol);
-                        currentSequence.add(move);
-                        foundCapture = true;
-                        
-                        // Sauvegarder l'état actuel
-                        String[][] savedState = board.getBoardState();
-                        
-                        // Effectuer le mouvement
-                        int middleRow = (row + newRow) / 2;
-                        int middleCol = (col + newCol) / 2;
-                        board.movePiece(row, col, newRow, newCol);
-                        board.capturePiece(middleRow, middleCol);
-                        
-                        // Vérifier les captures supplémentaires
-                        Piece movedPiece = board.getPiece(newRow, newCol);
-                        if (movedPiece != null) {
-                            findCaptureSequenceRecursive(movedPiece, newRow, newCol, 
-                                                      currentSequence, bestSequence, originalState);
-                        }
-                        
-                        // Restaurer l'état original
-                        board.setBoardState(savedState);
-                        currentSequence.remove(currentSequence.size() - 1);
-                    }
-                }
+    // Plusieurs chemins peuvent mener à la même rafle
+    private boolean isForcedMove() {
+        for (int i = 1; i < legalMoves.size(); i++) {
+            if (legalMoves.get(i) != legalMoves.get(0)) {
+                return false;
             }
         }
-        
-        if (!foundCapture && currentSequence.size() > bestSequence.size()) {
-            bestSequence.clear();
-            bestSequence.addAll(currentSequence);
-        }
+        return true;
     }
 
-    private void executeCaptureSequence(List<Move> sequence) {
-        for (Move move : sequence) {
-            try {
+    // Une partie abandonnée ne touche plus au plateau, même au milieu d'une rafle
+    private void playComputerMove(int index, CancellationToken turn) throws InterruptedException {
+        boolean capture = PackedMove.isCapture(legalMoves.get(index));
+        for (int step = 0; step < legalMoves.getPathLength(index); step++) {
+            if (capture) {
                 Thread.sleep(1000); // Pause entre chaque capture
-                
-                Piece piece = board.getPiece(move.getFromRow(), move.getFromCol());
-                if (piece instanceof Queen) {
-                    int[] capturedPos = findCapturedPieceForQueen(move.getFromRow(), move.getFromCol(), 
-                                                                move.getToRow(), move.getToCol());
-                    if (capturedPos != null) {
-                        board.movePiece(move.getFromRow(), move.getFromCol(), 
-                                      move.getToRow(), move.getToCol());
-                        board.capturePiece(capturedPos[0], capturedPos[1]);
-                    }
-                } else {
-                    int middleRow = (move.getFromRow() + move.getToRow()) / 2;
-                    int middleCol = (move.getFromCol() + move.getToCol()) / 2;
-                    board.movePiece(move.getFromRow(), move.getFromCol(), 
-                                  move.getToRow(), move.getToCol());
-                    board.capturePiece(middleRow, middleCol);
-                }
-                
+            }
+            if (turn.isCancelled()) {
+                return;
+            }
+            
+            board.applyMove(jumpAt(index, step));
+            
+            if (capture) {
                 SwingUtilities.invokeLater(() -> {
                     view.drawBoard(board);
                     updateStatus();
                 });
-            } catch (InterruptedException e) {
-                Logger.getLogger(Game.class.getName()).log(Level.SEVERE, null, e);
             }
         }
+        // La réflexion est lancée avant de rendre la main : un coup joué aussitôt par le
+        // joueur la trouve déjà publiée et peut l'arrêter ou la reprendre (signalPondering)
+        Board predicted = predictHumanReply();
+        if (predicted != null) {
+            startPondering(predicted);
+        }
         switchPlayer();
+        if (predicted != null && gameOver) {
+            // Partie finie : plus personne n'attendra cette réflexion sans limite de temps
+            ponderToken.cancel();
+            search.stop();
+        }
+    }
+
+    // Position après la réponse du joueur que la dernière recherche jugeait la meilleure
+    private Board predictHumanReply() {
+        if (!ponderingEnabled || !difficulty.equals("hard")) {
+            return null;
+        }
+        Board position = new Board(board);
+        position.setSideToMove(humanPlayerColor);
+        long reply = search.getHashMove(position);
+        if (reply == PackedMove.NONE) {
+            return null;
+        }
+        position.makeMove(reply);
+        return new Board(position);
+    }
+
+    private void startPondering(Board position) {
+        ponderHash = position.getHash();
+        ponderMove = PackedMove.NONE;
+        CancellationToken token = gameToken.child(0);
+        ponderToken = token;
+        search.startPondering();
+        ponderTask = engine.submit(token, () -> ponderMove = search.ponder(position, token));
+    }
+
+    // Le joueur a joué : si c'est le coup attendu, la réflexion continue avec le temps normal,
+    // sinon elle est annulée. Appelé par le fil qui a terminé le coup du joueur.
+    private boolean signalPondering() {
+        if (ponderTask == null) {
+            return false;
+        }
+        boolean hit = board.getHash() == ponderHash;
+        if (hit) {
+            search.ponderHit();
+        } else {
+            ponderToken.cancel();
+            search.stop();
+        }
+        return hit;
+    }
+
+    // Attend la fin de la réflexion ; son coup n'est gardé que si la prévision était juste
+    private long awaitPondering(boolean hit) {
+        Future<?> task = ponderTask;
+        if (task == null) {
+            return PackedMove.NONE;
+        }
+        ponderTask = null;
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return PackedMove.NONE;
+        } catch (ExecutionException | CancellationException e) {
+            Logger.getLogger(Game.class.getName()).log(Level.SEVERE, null, e);
+            return PackedMove.NONE;
+        }
+        return hit ? ponderMove : PackedMove.NONE;
+    }
+
+    // Partie abandonnée : tous ses travaux sont annulés, fils d'aide des recherches compris
+    public void dispose() {
+        gameOver = true;
+        gameToken.cancel();
+        search.stop();
+        monteCarlo.stop();
     }
 
     private void switchPlayer() {
-        currentPlayer = currentPlayer.equals("white") ? "black" : "white";
-        isHumanTurn = currentPlayer.equals(humanPlayerColor);
+        currentPlayer = currentPlayer.opposite();
+        board.setSideToMove(currentPlayer);
+        isHumanTurn = currentPlayer == humanPlayerColor;
         checkGameOver();
         
         if (!isHumanTurn && !gameOver) {
@@ -291,43 +406,31 @@ public class Game {
         }
     }
 
+    // Compteurs et état des coups tenus par Board : pas de parcours du damier
     private void checkGameOver() {
-        boolean whiteHasPieces = false;
-        boolean blackHasPieces = false;
-        boolean whiteCanMove = false;
-        boolean blackCanMove = false;
-
-        for (int row = 0; row < Board.SIZE; row++) {
-            for (int col = 0; col < Board.SIZE; col++) {
-                Piece piece = board.getPiece(row, col);
-                if (piece != null) {
-                    if (piece.getColor().equals("white")) {
-                        whiteHasPieces = true;
-                        if (piece.hasAvailableMoves(board)) {
-                            whiteCanMove = true;
-                        }
-                    } else {
-                        blackHasPieces = true;
-                        if (piece.hasAvailableMoves(board)) {
-                            blackCanMove = true;
-                        }
-                    }
-                }
-            }
-        }
-
-        if (!whiteHasPieces || (currentPlayer.equals("white") && !whiteCanMove)) {
+        if (board.getPieceCount(PieceColor.WHITE) == 0
+                || (currentPlayer == PieceColor.WHITE && !board.hasLegalMoves(PieceColor.WHITE))) {
             gameOver = true;
-            winner = "black";
-        } else if (!blackHasPieces || (currentPlayer.equals("black") && !blackCanMove)) {
+            winner = PieceColor.BLACK;
+        } else if (board.getPieceCount(PieceColor.BLACK) == 0
+                || (currentPlayer == PieceColor.BLACK && !board.hasLegalMoves(PieceColor.BLACK))) {
             gameOver = true;
-            winner = "white";
+            winner = PieceColor.WHITE;
+        } else {
+            // Finale nulle d'après les tables : aucun camp ne peut plus forcer le gain
+            Tablebase tables = tablebase;
+            if (tables != null && tables.probe(board) == TablebaseIndex.DRAW) {
+                gameOver = true;
+                winner = null;
+            }
         }
     }
 
     public void endGame() {
         SwingUtilities.invokeLater(() -> {
-            if (winner.equals(humanPlayerColor)) {
+            if (winner == null) {
+                view.showMessage("Partie nulle : plus personne ne peut gagner.");
+            } else if (winner == humanPlayerColor) {
                 view.showMessage("Félicitations! Vous avez gagné!");
             } else {
                 view.showMessage("L'ordinateur a gagné! Vous avez perdu.");
@@ -335,77 +438,102 @@ public class Game {
         });
     }
 
-    private void makeRandomMove() {
-        for (int row = 0; row < Board.SIZE; row++) {
-            for (int col = 0; col < Board.SIZE; col++) {
-                Piece piece = board.getPiece(row, col);
-                if (piece != null && piece.getColor().equals(currentPlayer)) {
-                    int[][] directions = piece.getMoveDirections();
-                    for (int[] dir : directions) {
-                        int newRow = row + dir[0];
-                        int newCol = col + dir[1];
-                        if (newRow >= 0 && newRow < Board.SIZE && newCol >= 0 && newCol < Board.SIZE) {
-                            if (makeComputerMove(row, col, newRow, newCol)) {
-                                return;
-                            }
-                        }
-                    }
-                }
+    private int chooseRandomMove() {
+        return random.nextInt(legalMoves.size());
+    }
+
+    // Le coup qui laisse la meilleure position d'après l'évaluation, sans chercher plus loin
+    private int chooseMediumMove() {
+        Board copy = new Board(board);
+        // Départ au hasard : les coups de même valeur ne sont pas toujours joués dans le même ordre
+        int start = chooseRandomMove();
+        int best = start;
+        int bestScore = Integer.MIN_VALUE;
+        for (int k = 0; k < legalMoves.size(); k++) {
+            int i = (start + k) % legalMoves.size();
+            long move = legalMoves.get(i);
+            copy.makeMove(move);
+            int score = -evaluator.evaluate(copy);
+            copy.unmakeMove(move);
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
             }
         }
-        switchPlayer();
+        return best;
     }
 
-    private boolean makeComputerMove(int fromRow, int fromCol, int toRow, int toCol) {
-        Piece piece = board.getPiece(fromRow, fromCol);
-        if (piece == null || !piece.getColor().equals(currentPlayer)) {
-            return false;
+    // La recherche utilise tout le temps de réflexion de l'ordinateur,
+    // sauf si la réflexion pendant le tour du joueur a déjà trouvé le coup.
+    // Au-delà de sa limite dure et d'une marge, elle est annulée par son jeton.
+    private int chooseHardMove(long pondered, CancellationToken turn) {
+        long best = pondered;
+        if (best == PackedMove.NONE) {
+            CancellationToken token = turn.child(search.getHardLimit() + SEARCH_TIMEOUT_MARGIN_MS);
+            best = search.findBestMove(board, token);
         }
+        // Alpha-beta voit un gain : la recherche par nombres de preuve le vérifie et
+        // donne un coup qui gagne à coup sûr, même si l'élagage a trompé la recherche
+        if (search.getBestScore() >= Search.WIN - Board.MAX_PLY) {
+            if (solver == null) {
+                solver = new ProofNumberSearch(PROOF_MEMORY_MB);
+            }
+            solver.setTablebase(tablebase);
+            if (solver.isWon(board, turn.child(PROOF_TIME_MS))) {
+                best = solver.getWinningMove();
+            }
+        }
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (legalMoves.get(i) == best) {
+                return i;
+            }
+        }
+        return chooseMediumMove();
+    }
 
-        if (!board.hasMandatoryCaptures(currentPlayer) && piece.isValidMove(toRow, toCol, board)) {
-            board.movePiece(fromRow, fromCol, toRow, toCol);
-            switchPlayer();
-            return true;
-        }
-        return false;
-    }
-
-    private void makeMediumMove() {
-        // Try to promote a pawn
-        for (int row = 0; row < Board.SIZE; row++) {
-            for (int col = 0; col < Board.SIZE; col++) {
-                Piece piece = board.getPiece(row, col);
-                if (piece instanceof Pawn && piece.getColor().equals(currentPlayer)) {
-                    if (currentPlayer.equals("white") && row == 1) {
-                        if (makeComputerMove(row, col, row-1, col-1) || 
-                            makeComputerMove(row, col, row-1, col+1)) {
-                            return;
-                        }
-                    } else if (currentPlayer.equals("black") && row == Board.SIZE-2) {
-                        if (makeComputerMove(row, col, row+1, col-1) || 
-                            makeComputerMove(row, col, row+1, col+1)) {
-                            return;
-                        }
-                    }
-                }
+    // Monte-Carlo joue le coup le plus visité quand son temps est écoulé
+    private int chooseMonteCarloMove(CancellationToken turn) {
+        CancellationToken token = turn.child(monteCarlo.getTimeBudget() + SEARCH_TIMEOUT_MARGIN_MS);
+        long best = monteCarlo.findBestMove(board, token);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (legalMoves.get(i) == best) {
+                return i;
             }
         }
-        makeRandomMove();
+        return chooseMediumMove();
+    }
+
+    // Temps de réflexion des niveaux difficile et Monte-Carlo, par coup
+    public void setEngineTimeBudget(long millis) {
+        search.setTimeBudget(millis);
+        monteCarlo.setTimeBudget(millis);
+    }
+
+    // Mémoire de la table de transposition du moteur, en mégaoctets
+    public void setEngineHashSize(int megabytes) {
+        search.setHashSize(megabytes);
+    }
+
+    // Réflexion du niveau difficile pendant le tour du joueur
+    public void setEnginePondering(boolean enabled) {
+        this.ponderingEnabled = enabled;
     }
 
-    private void makeHardMove() {
-        makeMediumMove();
+    // Nombre de fils de recherche (par défaut, un par cœur)
+    public void setEngineThreads(int threads) {
+        search.setThreads(threads);
+        monteCarlo.setThreads(threads);
     }
 
     public boolean isGameOver() { return gameOver; }
-    public String getWinner() { return winner; }
-    public String getCurrentPlayer() { return currentPlayer; }
+    public PieceColor getWinner() { return winner; }
+    public PieceColor getCurrentPlayer() { return currentPlayer; }
     public Board getBoard() { return board; }
-    public String getHumanPlayerColor() { return humanPlayerColor; }
+    public PieceColor getHumanPlayerColor() { return humanPlayerColor; }
     public boolean isHumanTurn() { return isHumanTurn; }
 
     private void updateStatus() {
-        String status = "Tour: " + (currentPlayer.equals("white") ? "Blancs" : "Noirs");
+        String status = "Tour: " + (currentPlayer == PieceColor.WHITE ? "Blancs" : "Noirs");
         if (isHumanTurn) {
             status += " (Votre tour)";
         } else {
@@ -1,20 +1,21 @@
 package model;
 
+// Vue d'un coup compacté (PackedMove) pour l'interface
 public class Move {
-    private final int fromRow;
-    private final int fromCol;
-    private final int toRow;
-    private final int toCol;
+    private final long packed;
+
+    public Move(long packed) {
+        this.packed = packed;
+    }
 
     public Move(int fromRow, int fromCol, int toRow, int toCol) {
-        this.fromRow = fromRow;
-        this.fromCol = fromCol;
-        this.toRow = toRow;
-        this.toCol = toCol;
+        this(PackedMove.encode(Squares.field(fromRow, fromCol), Squares.field(toRow, toCol), 0L, false));
     }
 
-    public int getFromRow() { return fromRow; }
-    public int getFromCol() { return fromCol; }
-    public int getToRow() { return toRow; }
-    public int getToCol() { return toCol; }
-}
\ No newline at end of file
+    public long getPacked() { return packed; }
+    public int getFromRow() { return Squares.row(PackedMove.from(packed)); }
+    public int getFromCol() { return Squares.col(PackedMove.from(packed)); }
+    public int getToRow() { return Squares.row(PackedMove.to(packed)); }
+    public int getToCol() { return Squares.col(PackedMove.to(packed)); }
+    public boolean isCapture() { return PackedMove.isCapture(packed); }
+}
@@ -0,0 +1,137 @@
+package model;
+
+// Génère les coups légaux d'un camp à partir des masques de Board :
+// rafles complètes des pions et des dames volantes avec la prise majoritaire,
+// sinon les déplacements simples. Les pièces prises restent sur le damier
+// jusqu'à la fin de la rafle et ne peuvent pas être sautées deux fois.
+final class MoveGenerator {
+    private final int[] path = new int[MoveList.MAX_CAPTURES + 1];
+    private MoveList out;
+    private long opponents;
+    private long free;
+    private long promotionRow;
+    private int origin;
+    private int best;
+
+    void generate(long men, long kings, long opponents, long empty,
+                  boolean movesUp, long promotionRow, MoveList out) {
+        this.out = out;
+        this.opponents = opponents;
+        this.promotionRow = promotionRow;
+        out.clear();
+        best = 0;
+
+        // Prises obligatoires
+        long pieces = men;
+        while (pieces != 0) {
+            origin = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            free = empty | Squares.bit(origin);
+            manCaptures(origin, 0L, 0);
+        }
+        pieces = kings;
+        while (pieces != 0) {
+            origin = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            free = empty | Squares.bit(origin);
+            kingCaptures(origin, 0L, 0, 0);
+        }
+        if (!out.isEmpty()) {
+            return;
+        }
+
+        // Déplacements simples des pions, vers l'avant seulement
+        int left = movesUp ? Squares.UP_LEFT : Squares.DOWN_LEFT;
+        int right = movesUp ? Squares.UP_RIGHT : Squares.DOWN_RIGHT;
+        addManMoves(Squares.shift(men, left) & empty, left);
+        addManMoves(Squares.shift(men, right) & empty, right);
+
+        // Déplacements des dames sur toute la diagonale
+        pieces = kings;
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long targets = Squares.kingMoves(from, ~empty);
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                path[0] = to;
+                out.add(PackedMove.encode(from, to, 0L, false), path, 1);
+            }
+        }
+    }
+
+    private void addManMoves(long targets, int dir) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            path[0] = to;
+            boolean promotion = (promotionRow & Squares.bit(to)) != 0;
+            out.add(PackedMove.encode(to - dir, to, 0L, promotion), path, 1);
+        }
+    }
+
+    private void manCaptures(int current, long captured, int depth) {
+        boolean extended = false;
+        for (int dir : Squares.DIRECTIONS) {
+            int victim = current + dir;
+            int landing = victim + dir;
+            if (Squares.isValid(landing)
+                    && (opponents & ~captured & Squares.bit(victim)) != 0
+                    && (free & Squares.bit(landing)) != 0) {
+                path[depth] = landing;
+                manCaptures(landing, captured | Squares.bit(victim), depth + 1);
+                extended = true;
+            }
+        }
+        if (!extended && captured != 0) {
+            // Un pion ne devient dame que s'il termine la rafle sur la dernière rangée
+            record(current, captured, depth, (promotionRow & Squares.bit(current)) != 0);
+        }
+    }
+
+    private void kingCaptures(int current, long captured, int depth, int lastDir) {
+        boolean extended = false;
+        long occupied = ~free;
+        for (int d = 0; d < Squares.DIRECTIONS.length; d++) {
+            // Revenir en arrière bute sur la pièce qui vient d'être prise
+            int dir = Squares.DIRECTIONS[d];
+            if (dir == -lastDir) continue;
+
+            int victim = Squares.firstBlocker(current, d, occupied);
+            if (victim < 0 || (opponents & ~captured & Squares.bit(victim)) == 0) {
+                continue;
+            }
+
+            long landings = Squares.slide(victim, d, occupied);
+            while (landings != 0) {
+                int landing = Long.numberOfTrailingZeros(landings);
+                landings &= landings - 1;
+                path[depth] = landing;
+                kingCaptures(landing, captured | Squares.bit(victim), depth + 1, dir);
+                extended = true;
+            }
+        }
+        if (!extended && captured != 0) {
+            record(current, captured, depth, false);
+        }
+    }
+
+    private void record(int to, long captured, int depth, boolean promotion) {
+        int count = Long.bitCount(captured);
+        if (count < best) return;
+        if (count > best) {
+            best = count;
+            out.clear();
+        }
+        long move = PackedMove.encode(origin, to, captured, promotion);
+        // Même départ, même arrivée, mêmes pièces prises : un seul coup.
+        // Quand les chemins sont conservés (interface), chaque chemin reste jouable.
+        if (!out.hasPaths()) {
+            for (int i = 0; i < out.size(); i++) {
+                if (out.get(i) == move) return;
+            }
+        }
+        out.add(move, path, depth);
+    }
+}
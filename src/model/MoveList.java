@@ -0,0 +1,97 @@
+package model;
+
+import java.util.Arrays;
+
+// Tampon de coups préalloué, réutilisé d'une recherche à l'autre
+public final class MoveList {
+    public static final int CAPACITY = 256;
+    // 20 pièces adverses au plus, donc 20 prises et 21 niveaux de rafle
+    public static final int MAX_CAPTURES = 20;
+
+    private long[] moves;
+    // Cases d'arrivée de chaque saut, seulement pour l'interface : plusieurs chemins
+    // peuvent donner la même rafle, la liste s'agrandit donc au besoin
+    private int[][] paths;
+    private int[] pathLengths;
+    private int size;
+
+    public MoveList() {
+        this(CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        this(capacity, false);
+    }
+
+    private MoveList(int capacity, boolean withPaths) {
+        moves = new long[capacity];
+        paths = withPaths ? new int[capacity][MAX_CAPTURES + 1] : null;
+        pathLengths = withPaths ? new int[capacity] : null;
+    }
+
+    public static MoveList withPaths() {
+        return new MoveList(CAPACITY, true);
+    }
+
+    // Un tampon par profondeur, alloués une fois pour toute la recherche
+    public static MoveList[] perPly(int plies) {
+        MoveList[] lists = new MoveList[plies];
+        for (int i = 0; i < plies; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    public void add(long move) {
+        moves[size++] = move;
+    }
+
+    public void add(long move, int[] path, int length) {
+        if (paths != null) {
+            if (size == moves.length) {
+                grow();
+            }
+            System.arraycopy(path, 0, paths[size], 0, length);
+            pathLengths[size] = length;
+        }
+        moves[size++] = move;
+    }
+
+    private void grow() {
+        int capacity = moves.length * 2;
+        moves = Arrays.copyOf(moves, capacity);
+        pathLengths = Arrays.copyOf(pathLengths, capacity);
+        paths = Arrays.copyOf(paths, capacity);
+        for (int i = size; i < capacity; i++) {
+            paths[i] = new int[MAX_CAPTURES + 1];
+        }
+    }
+
+    public long get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, long move) {
+        moves[index] = move;
+    }
+
+    public void removeLast() {
+        size--;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean hasPaths() { return paths != null; }
+    public int getPathLength(int index) { return pathLengths[index]; }
+    public int getPathField(int index, int step) { return paths[index][step]; }
+
+    public void copyFrom(MoveList other) {
+        System.arraycopy(other.moves, 0, moves, 0, other.size);
+        size = other.size;
+    }
+}
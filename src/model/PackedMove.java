@@ -0,0 +1,62 @@
+package model;
+
+// Un coup tient dans un long :
+//   bits 0-49  : cases capturées (une par case noire, numérotées de 0 à 49)
+//   bits 50-55 : case de départ (indice Squares)
+//   bits 56-61 : case d'arrivée (indice Squares)
+//   bit 62     : promotion en dame
+public final class PackedMove {
+    public static final long NONE = 0L;
+
+    private static final int FROM_SHIFT = 50;
+    private static final int TO_SHIFT = 56;
+    private static final long FIELD_BITS = 0x3FL;
+    private static final long CAPTURE_BITS = (1L << 50) - 1;
+    private static final long PROMOTION_BIT = 1L << 62;
+
+    private PackedMove() {
+    }
+
+    public static long encode(int from, int to, long capturedFields, boolean promotion) {
+        long move = Squares.toSquares(capturedFields)
+                | ((long) from << FROM_SHIFT)
+                | ((long) to << TO_SHIFT);
+        return promotion ? move | PROMOTION_BIT : move;
+    }
+
+    public static int from(long move) {
+        return (int) ((move >>> FROM_SHIFT) & FIELD_BITS);
+    }
+
+    public static int to(long move) {
+        return (int) ((move >>> TO_SHIFT) & FIELD_BITS);
+    }
+
+    // Cases capturées, dans la numérotation des masques de Board
+    public static long captured(long move) {
+        return Squares.toFields(move & CAPTURE_BITS);
+    }
+
+    public static int captureCount(long move) {
+        return Long.bitCount(move & CAPTURE_BITS);
+    }
+
+    public static boolean isCapture(long move) {
+        return (move & CAPTURE_BITS) != 0;
+    }
+
+    public static boolean isPromotion(long move) {
+        return (move & PROMOTION_BIT) != 0;
+    }
+
+    // Notation officielle : "32-28" pour un déplacement, "28x19" pour une prise
+    public static String toNotation(long move) {
+        return Squares.number(from(move)) + (isCapture(move) ? "x" : "-") + Squares.number(to(move));
+    }
+
+    // Le même coup sur le damier retourné d'un demi-tour (voir Board.mirrored)
+    public static long mirror(long move) {
+        return encode(Squares.mirror(from(move)), Squares.mirror(to(move)),
+                      Squares.mirror(captured(move)), isPromotion(move));
+    }
+}
@@ -1,71 +1,67 @@
 package model;
 
 public class Pawn extends Piece {
-    public Pawn(String color, int row, int col) {
-        super(color, row, col);
+    public static final Pawn WHITE = new Pawn(PieceColor.WHITE);
+    public static final Pawn BLACK = new Pawn(PieceColor.BLACK);
+
+    // Peut capturer en avant et en arrière
+    private static final int[][] CAPTURE_DIRECTIONS = {{-2, -2}, {-2, 2}, {2, -2}, {2, 2}};
+    private static final int[][] UP_DIRECTIONS = {{-1, -1}, {-1, 1}};
+    private static final int[][] DOWN_DIRECTIONS = {{1, -1}, {1, 1}};
+
+    private Pawn(PieceColor color) {
+        super(color);
     }
 
     @Override
-    protected int[][] getCaptureDirections() {
-        // Peut capturer en avant et en arrière
-        return new int[][]{{-2, -2}, {-2, 2}, {2, -2}, {2, 2}};
+    public boolean isQueen() {
+        return false;
     }
 
     @Override
-    protected int[][] getMoveDirections() {
-        if (color.equals("white")) {
-            return new int[][]{{-1, -1}, {-1, 1}};
-        } else {
-            return new int[][]{{1, -1}, {1, 1}};
-        }
+    protected int[][] getCaptureDirections() {
+        return CAPTURE_DIRECTIONS;
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toCol, Board board) {
-        if (toRow < 0 || toRow >= Board.SIZE || toCol < 0 || toCol >= Board.SIZE) {
-            return false;
-        }
+    protected int[][] getMoveDirections(Board board) {
+        // Les pions avancent vers le camp adverse
+        return board.movesUp(color) ? UP_DIRECTIONS : DOWN_DIRECTIONS;
+    }
 
-        if (board.getPiece(toRow, toCol) != null) {
+    @Override
+    public boolean isValidMove(int fromRow, int fromCol, int toRow, int toCol, Board board) {
+        int to = Squares.field(toRow, toCol);
+        if (to < 0 || (board.getEmpty() & Squares.bit(to)) == 0) {
             return false;
         }
 
-        int rowDiff = toRow - row;
-        int colDiff = Math.abs(toCol - col);
+        int rowDiff = toRow - fromRow;
+        int colDiff = Math.abs(toCol - fromCol);
 
         if (colDiff != 1) {
             return false;
         }
 
-        if (color.equals("white")) {
-            return rowDiff == -1;
-        } else {
-            return rowDiff == 1;
-        }
+        return rowDiff == (board.movesUp(color) ? -1 : 1);
     }
 
     @Override
-    public boolean canCapture(int toRow, int toCol, Board board) {
-        if (toRow < 0 || toRow >= Board.SIZE || toCol < 0 || toCol >= Board.SIZE) {
-            return false;
-        }
-
-        if (board.getPiece(toRow, toCol) != null) {
+    public boolean canCapture(int fromRow, int fromCol, int toRow, int toCol, Board board) {
+        int to = Squares.field(toRow, toCol);
+        if (to < 0 || (board.getEmpty() & Squares.bit(to)) == 0) {
             return false;
         }
 
-        int rowDiff = toRow - row;
-        int colDiff = toCol - col;
+        int rowDiff = toRow - fromRow;
+        int colDiff = toCol - fromCol;
 
         if (Math.abs(rowDiff) != 2 || Math.abs(colDiff) != 2) {
             return false;
         }
 
-        int middleRow = row + rowDiff / 2;
-        int middleCol = col + colDiff / 2;
-        
-        Piece middlePiece = board.getPiece(middleRow, middleCol);
-        
-        return middlePiece != null && !middlePiece.getColor().equals(color);
+        // La case sautée doit porter une pièce adverse
+        int middle = Squares.field(fromRow + rowDiff / 2, fromCol + colDiff / 2);
+        return (board.getPieces(color.opposite()) & Squares.bit(middle)) != 0;
     }
-}
\ No newline at end of file
+}
@@ -1,35 +1,35 @@
 package model;
 
+// Pièce immuable partagée : une seule instance par couleur et par type.
+// La position est celle de la case du plateau, passée à chaque règle.
 public abstract class Piece {
-    protected String color;
-    protected int row;
-    protected int col;
+    protected final PieceColor color;
 
-    public Piece(String color, int row, int col) {
+    protected Piece(PieceColor color) {
         this.color = color;
-        this.row = row;
-        this.col = col;
     }
 
-    public String getColor() { return color; }
-    public int getRow() { return row; }
-    public int getCol() { return col; }
-
-    public void setPosition(int row, int col) {
-        this.row = row;
-        this.col = col;
+    public static Piece of(PieceColor color, boolean queen) {
+        if (queen) {
+            return color == PieceColor.WHITE ? Queen.WHITE : Queen.BLACK;
+        }
+        return color == PieceColor.WHITE ? Pawn.WHITE : Pawn.BLACK;
     }
 
-    public abstract boolean isValidMove(int toRow, int toCol, Board board);
-    public abstract boolean canCapture(int toRow, int toCol, Board board);
+    public PieceColor getColor() { return color; }
+
+    public abstract boolean isQueen();
+
+    public abstract boolean isValidMove(int fromRow, int fromCol, int toRow, int toCol, Board board);
+    public abstract boolean canCapture(int fromRow, int fromCol, int toRow, int toCol, Board board);
     
-    public boolean hasAvailableCaptures(Board board) {
+    public boolean hasAvailableCaptures(int row, int col, Board board) {
         int[][] captureDirections = getCaptureDirections();
         for (int[] dir : captureDirections) {
             int newRow = row + dir[0];
             int newCol = col + dir[1];
             if (newRow >= 0 && newRow < Board.SIZE && newCol >= 0 && newCol < Board.SIZE) {
-                if (canCapture(newRow, newCol, board)) {
+                if (canCapture(row, col, newRow, newCol, board)) {
                     return true;
                 }
             }
@@ -37,23 +37,23 @@ public abstract class Piece {
         return false;
     }
     
-    public boolean hasAvailableMoves(Board board) {
+    public boolean hasAvailableMoves(int row, int col, Board board) {
         // Vérifie les mouvements simples
-        int[][] moveDirections = getMoveDirections();
+        int[][] moveDirections = getMoveDirections(board);
         for (int[] dir : moveDirections) {
             int newRow = row + dir[0];
             int newCol = col + dir[1];
             if (newRow >= 0 && newRow < Board.SIZE && newCol >= 0 && newCol < Board.SIZE) {
-                if (isValidMove(newRow, newCol, board)) {
+                if (isValidMove(row, col, newRow, newCol, board)) {
                     return true;
                 }
             }
         }
         
         // Vérifie les captures
-        return hasAvailableCaptures(board);
+        return hasAvailableCaptures(row, col, board);
     }
     
     protected abstract int[][] getCaptureDirections();
-    protected abstract int[][] getMoveDirections();
-}
\ No newline at end of file
+    protected abstract int[][] getMoveDirections(Board board);
+}
@@ -0,0 +1,28 @@
+package model;
+
+// Couleur d'un camp. Le nom ("white" / "black") est celui des sauvegardes.
+public enum PieceColor {
+    WHITE("white"),
+    BLACK("black");
+
+    private final String label;
+
+    PieceColor(String label) {
+        this.label = label;
+    }
+
+    public PieceColor opposite() {
+        return this == WHITE ? BLACK : WHITE;
+    }
+
+    public String getLabel() { return label; }
+
+    public static PieceColor fromLabel(String label) {
+        for (PieceColor color : values()) {
+            if (color.label.equals(label)) {
+                return color;
+            }
+        }
+        throw new IllegalArgumentException("Couleur inconnue : " + label);
+    }
+}
@@ -0,0 +1,72 @@
+package model;
+
+// Valeur de chaque pièce selon sa case, matériel compris, utilisée par l'évaluation
+// du moteur. Board en tient la somme à jour à chaque coup (blancs moins noirs),
+// comme le hash de Zobrist. Les tables sont écrites pour un camp qui monte vers la
+// rangée 0 ; un camp qui descend lit la case symétrique par rapport au centre.
+public final class PieceSquare {
+    public static final int MAN_VALUE = 100;
+    public static final int KING_VALUE = 300;
+
+    // Avance d'un pion, par rangée franchie
+    private static final int ADVANCE_BONUS = 3;
+    // Pions sur les colonnes centrales
+    private static final int[] CENTER_BONUS = {0, 1, 3, 5, 6, 6, 5, 3, 1, 0};
+    // Pions restés sur la dernière rangée : ils gardent les cases de promotion adverses
+    private static final int BACK_RANK_BONUS = 8;
+    // Dames sur la grande diagonale
+    private static final int LONG_DIAGONAL_BONUS = 12;
+
+    // [blancs montent ? 0 : 1][type de Zobrist][case], positif pour les blancs
+    private static final int[][][] TABLES = new int[2][4][Squares.FIELDS];
+
+    static {
+        for (int field = 0; field < Squares.FIELDS; field++) {
+            if (!Squares.isValid(field)) continue;
+            int mirrored = Squares.mirror(field);
+            TABLES[0][Zobrist.WHITE_MAN][field] = manValue(field);
+            TABLES[0][Zobrist.WHITE_KING][field] = kingValue(field);
+            TABLES[0][Zobrist.BLACK_MAN][field] = -manValue(mirrored);
+            TABLES[0][Zobrist.BLACK_KING][field] = -kingValue(mirrored);
+            TABLES[1][Zobrist.WHITE_MAN][field] = manValue(mirrored);
+            TABLES[1][Zobrist.WHITE_KING][field] = kingValue(mirrored);
+            TABLES[1][Zobrist.BLACK_MAN][field] = -manValue(field);
+            TABLES[1][Zobrist.BLACK_KING][field] = -kingValue(field);
+        }
+    }
+
+    private PieceSquare() {
+    }
+
+    private static int manValue(int field) {
+        int row = Squares.row(field);
+        int rank = Board.SIZE - 1 - row;
+        int value = MAN_VALUE + rank * ADVANCE_BONUS + CENTER_BONUS[Squares.col(field)];
+        if (rank == 0) {
+            value += BACK_RANK_BONUS;
+        }
+        return value;
+    }
+
+    private static int kingValue(int field) {
+        int value = KING_VALUE;
+        if (Squares.row(field) + Squares.col(field) == Board.SIZE - 1) {
+            value += LONG_DIAGONAL_BONUS;
+        }
+        return value;
+    }
+
+    public static int[][] table(boolean whiteMovesUp) {
+        return TABLES[whiteMovesUp ? 0 : 1];
+    }
+
+    // Somme des valeurs d'un type de pièce sur les cases d'un masque
+    public static int sum(int[][] table, int type, long mask) {
+        int sum = 0;
+        while (mask != 0) {
+            sum += table[type][Long.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return sum;
+    }
+}
@@ -1,144 +1,88 @@
 package model;
 
 public class Queen extends Piece {
-    public Queen(String color, int row, int col) {
-        super(color, row, col);
+    public static final Queen WHITE = new Queen(PieceColor.WHITE);
+    public static final Queen BLACK = new Queen(PieceColor.BLACK);
+
+    // La dame se déplace et capture dans les 4 directions
+    private static final int[][] DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private Queen(PieceColor color) {
+        super(color);
     }
 
     @Override
-    protected int[][] getCaptureDirections() {
-        // La dame peut capturer dans les 4 directions
-        return new int[][]{{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    public boolean isQueen() {
+        return true;
     }
 
     @Override
-    protected int[][] getMoveDirections() {
-        return new int[][]{{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    protected int[][] getCaptureDirections() {
+        return DIRECTIONS;
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toCol, Board board) {
-        if (toRow < 0 || toRow >= Board.SIZE || toCol < 0 || toCol >= Board.SIZE) {
-            return false;
-        }
-
-        if (board.getPiece(toRow, toCol) != null) {
-            return false;
-        }
-
-        int rowDiff = toRow - row;
-        int colDiff = toCol - col;
+    protected int[][] getMoveDirections(Board board) {
+        return DIRECTIONS;
+    }
 
-        if (Math.abs(rowDiff) != Math.abs(colDiff)) {
+    @Override
+    public boolean isValidMove(int fromRow, int fromCol, int toRow, int toCol, Board board) {
+        int from = Squares.field(fromRow, fromCol);
+        int to = Squares.field(toRow, toCol);
+        if (from < 0 || to < 0) {
             return false;
         }
-
-        int rowStep = rowDiff > 0 ? 1 : -1;
-        int colStep = colDiff > 0 ? 1 : -1;
-        
-        int currentRow = row + rowStep;
-        int currentCol = col + colStep;
-        
-        while (currentRow != toRow && currentCol != toCol) {
-            if (board.getPiece(currentRow, currentCol) != null) {
-                return false;
-            }
-            currentRow += rowStep;
-            currentCol += colStep;
-        }
-
-        return true;
+        // Case libre sur une diagonale dégagée
+        long occupied = ~board.getEmpty();
+        return (Squares.kingMoves(from, occupied) & Squares.bit(to)) != 0;
     }
 
     @Override
-    public boolean canCapture(int toRow, int toCol, Board board) {
-        if (toRow < 0 || toRow >= Board.SIZE || toCol < 0 || toCol >= Board.SIZE) {
+    public boolean canCapture(int fromRow, int fromCol, int toRow, int toCol, Board board) {
+        int from = Squares.field(fromRow, fromCol);
+        int to = Squares.field(toRow, toCol);
+        if (from < 0 || to < 0) {
             return false;
         }
 
-        if (board.getPiece(toRow, toCol) != null) {
+        int d = Squares.direction(from, to);
+        if (d < 0) {
             return false;
         }
 
-        int rowDiff = toRow - row;
-        int colDiff = toCol - col;
-
-        if (Math.abs(rowDiff) != Math.abs(colDiff)) {
+        // Une seule pièce, adverse, entre la dame et une case d'arrivée libre
+        long occupied = ~board.getEmpty();
+        int victim = Squares.firstBlocker(from, d, occupied);
+        if (victim < 0 || (board.getPieces(color) & Squares.bit(victim)) != 0) {
             return false;
         }
-
-        int rowStep = rowDiff > 0 ? 1 : -1;
-        int colStep = colDiff > 0 ? 1 : -1;
-        
-        int currentRow = row + rowStep;
-        int currentCol = col + colStep;
-        
-        Piece capturedPiece = null;
-        int captureRow = -1;
-        int captureCol = -1;
-        
-        while (currentRow != toRow && currentCol != toCol) {
-            Piece piece = board.getPiece(currentRow, currentCol);
-            
-            if (piece != null) {
-                if (capturedPiece != null) {
-                    return false; // Plus d'une pièce sur le chemin
-                }
-                
-                if (piece.getColor().equals(color)) {
-                    return false; // Pièce de la même couleur
-                } else {
-                    capturedPiece = piece;
-                    captureRow = currentRow;
-                    captureCol = currentCol;
-                }
-            }
-            
-            currentRow += rowStep;
-            currentCol += colStep;
-        }
-
-        return capturedPiece != null;
+        return (Squares.slide(victim, d, occupied) & Squares.bit(to)) != 0;
     }
 
     @Override
-    public boolean hasAvailableCaptures(Board board) {
-        for (int[] dir : getCaptureDirections()) {
-            for (int distance = 1; distance < Board.SIZE; distance++) {
-                int newRow = row + dir[0] * distance;
-                int newCol = col + dir[1] * distance;
-                
-                if (newRow < 0 || newRow >= Board.SIZE || newCol < 0 || newCol >= Board.SIZE) {
-                    break;
-                }
-                
-                if (canCapture(newRow, newCol, board)) {
-                    return true;
-                }
+    public boolean hasAvailableCaptures(int row, int col, Board board) {
+        int from = Squares.field(row, col);
+        long occupied = ~board.getEmpty();
+        long own = board.getPieces(color);
+        for (int d = 0; d < Squares.DIRECTIONS.length; d++) {
+            int victim = Squares.firstBlocker(from, d, occupied);
+            if (victim >= 0 && (own & Squares.bit(victim)) == 0
+                    && Squares.slide(victim, d, occupied) != 0) {
+                return true;
             }
         }
         return false;
     }
 
     @Override
-    public boolean hasAvailableMoves(Board board) {
+    public boolean hasAvailableMoves(int row, int col, Board board) {
         // Vérifie les mouvements simples
-        for (int[] dir : getMoveDirections()) {
-            for (int distance = 1; distance < Board.SIZE; distance++) {
-                int newRow = row + dir[0] * distance;
-                int newCol = col + dir[1] * distance;
-                
-                if (newRow < 0 || newRow >= Board.SIZE || newCol < 0 || newCol >= Board.SIZE) {
-                    break;
-                }
-                
-                if (isValidMove(newRow, newCol, board)) {
-                    return true;
-                }
-            }
+        if (Squares.kingMoves(Squares.field(row, col), ~board.getEmpty()) != 0) {
+            return true;
         }
         
         // Vérifie les captures
-        return hasAvailableCaptures(board);
+        return hasAvailableCaptures(row, col, board);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,180 @@
+package model;
+
+import java.util.Arrays;
+
+// Géométrie des 50 cases noires du damier 10x10.
+// Chaque case est un bit d'un long, avec une case "fantôme" après chaque paire
+// de rangées (bits 10, 21, 32 et 43) : les diagonales sont alors toujours les
+// mêmes décalages (-6, -5, +5, +6) quelle que soit la rangée.
+public final class Squares {
+    public static final int FIELDS = 54;
+
+    public static final int UP_LEFT = -6;
+    public static final int UP_RIGHT = -5;
+    public static final int DOWN_LEFT = 5;
+    public static final int DOWN_RIGHT = 6;
+    public static final int[] DIRECTIONS = {UP_LEFT, UP_RIGHT, DOWN_LEFT, DOWN_RIGHT};
+
+    public static final long BOARD_MASK;
+    private static final long ROW_PAIR_BITS = 0x3FFL;
+
+    private static final int[][] FIELD_AT = new int[Board.SIZE][Board.SIZE];
+    private static final int[] FIELD_ROW = new int[FIELDS];
+    private static final int[] FIELD_COL = new int[FIELDS];
+    private static final long[] ROW_MASK = new long[Board.SIZE];
+    // Rayons précalculés : cases d'une diagonale à partir d'une case (exclue), par direction
+    private static final long[][] RAY = new long[DIRECTIONS.length][FIELDS];
+    private static final long[][] BETWEEN = new long[FIELDS][FIELDS];
+    private static final byte[][] DIRECTION_INDEX = new byte[FIELDS][FIELDS];
+
+    static {
+        long mask = 0L;
+        for (int row = 0; row < Board.SIZE; row++) {
+            for (int col = 0; col < Board.SIZE; col++) {
+                FIELD_AT[row][col] = -1;
+            }
+        }
+        for (int f = 0; f < FIELDS; f++) {
+            FIELD_ROW[f] = -1;
+            FIELD_COL[f] = -1;
+        }
+        for (int row = 0; row < Board.SIZE; row++) {
+            for (int col = 0; col < Board.SIZE; col++) {
+                if ((row + col) % 2 == 1) {
+                    int square = row * 5 + col / 2;
+                    int field = square + square / 10;
+                    FIELD_AT[row][col] = field;
+                    FIELD_ROW[field] = row;
+                    FIELD_COL[field] = col;
+                    mask |= 1L << field;
+                    ROW_MASK[row] |= 1L << field;
+                }
+            }
+        }
+        BOARD_MASK = mask;
+
+        for (int from = 0; from < FIELDS; from++) {
+            Arrays.fill(DIRECTION_INDEX[from], (byte) -1);
+            if (FIELD_ROW[from] < 0) continue;
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                int rowStep = DIRECTIONS[d] < 0 ? -1 : 1;
+                int colStep = DIRECTIONS[d] == UP_LEFT || DIRECTIONS[d] == DOWN_LEFT ? -1 : 1;
+                long passed = 0L;
+                int to = field(FIELD_ROW[from] + rowStep, FIELD_COL[from] + colStep);
+                while (to >= 0) {
+                    RAY[d][from] |= 1L << to;
+                    BETWEEN[from][to] = passed;
+                    DIRECTION_INDEX[from][to] = (byte) d;
+                    passed |= 1L << to;
+                    to = field(FIELD_ROW[to] + rowStep, FIELD_COL[to] + colStep);
+                }
+            }
+        }
+    }
+
+    private Squares() {
+    }
+
+    public static int field(int row, int col) {
+        if (row < 0 || row >= Board.SIZE || col < 0 || col >= Board.SIZE) {
+            return -1;
+        }
+        return FIELD_AT[row][col];
+    }
+
+    public static int row(int field) { return FIELD_ROW[field]; }
+    public static int col(int field) { return FIELD_COL[field]; }
+
+    public static boolean isValid(int field) {
+        return field >= 0 && field < FIELDS && ((BOARD_MASK >>> field) & 1L) != 0;
+    }
+
+    public static long bit(int field) {
+        return 1L << field;
+    }
+
+    // Numérotation officielle des cases (1 à 50, en partant du haut à gauche)
+    public static int number(int field) {
+        return field - field / 11 + 1;
+    }
+
+    public static int fromNumber(int number) {
+        int square = number - 1;
+        return square + square / 10;
+    }
+
+    public static long rowMask(int row) {
+        return ROW_MASK[row];
+    }
+
+    // Cases strictement entre deux cases d'une même diagonale
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    // Indice dans DIRECTIONS de la diagonale qui mène de from à to, -1 sinon
+    public static int direction(int from, int to) {
+        return DIRECTION_INDEX[from][to];
+    }
+
+    public static long ray(int field, int d) {
+        return RAY[d][field];
+    }
+
+    // Première pièce rencontrée depuis field dans la direction d, -1 s'il n'y en a pas.
+    // Vers le haut les indices décroissent : la plus proche est le bit le plus fort.
+    public static int firstBlocker(int field, int d, long occupied) {
+        long blockers = RAY[d][field] & occupied;
+        if (blockers == 0) {
+            return -1;
+        }
+        return DIRECTIONS[d] < 0 ? 63 - Long.numberOfLeadingZeros(blockers) : Long.numberOfTrailingZeros(blockers);
+    }
+
+    // Cases libres atteignables depuis field dans la direction d, avant la première pièce
+    public static long slide(int field, int d, long occupied) {
+        int blocker = firstBlocker(field, d, occupied);
+        if (blocker < 0) {
+            return RAY[d][field];
+        }
+        return BETWEEN[field][blocker];
+    }
+
+    // Déplacements d'une dame volante dans les 4 directions
+    public static long kingMoves(int field, long occupied) {
+        return slide(field, 0, occupied) | slide(field, 1, occupied)
+             | slide(field, 2, occupied) | slide(field, 3, occupied);
+    }
+
+    // Demi-tour du damier : la case s devient 49 - s, soit 53 - case avec les cases fantômes
+    public static int mirror(int field) {
+        return FIELDS - 1 - field;
+    }
+
+    public static long mirror(long mask) {
+        return Long.reverse(mask) >>> (64 - FIELDS);
+    }
+
+    // Masque de cases (avec les bits fantômes) vers un masque de 50 bits numérotés de 0 à 49, et retour
+    public static long toSquares(long fields) {
+        return (fields & ROW_PAIR_BITS)
+                | ((fields >>> 11) & ROW_PAIR_BITS) << 10
+                | ((fields >>> 22) & ROW_PAIR_BITS) << 20
+                | ((fields >>> 33) & ROW_PAIR_BITS) << 30
+                | ((fields >>> 44) & ROW_PAIR_BITS) << 40;
+    }
+
+    public static long toFields(long squares) {
+        return (squares & ROW_PAIR_BITS)
+                | ((squares >>> 10) & ROW_PAIR_BITS) << 11
+                | ((squares >>> 20) & ROW_PAIR_BITS) << 22
+                | ((squares >>> 30) & ROW_PAIR_BITS) << 33
+                | ((squares >>> 40) & ROW_PAIR_BITS) << 44;
+    }
+
+    // Décale toutes les cases d'un masque d'un pas dans la direction donnée
+    public static long shift(long mask, int direction) {
+        long shifted = direction > 0 ? mask << direction : mask >>> -direction;
+        return shifted & BOARD_MASK;
+    }
+}
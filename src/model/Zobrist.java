@@ -0,0 +1,49 @@
+package model;
+
+// Clés de Zobrist, tirées avec une graine fixe pour que le hash d'une position
+// reste le même d'une exécution à l'autre (livre d'ouvertures, fichiers)
+public final class Zobrist {
+    public static final int WHITE_MAN = 0;
+    public static final int BLACK_MAN = 1;
+    public static final int WHITE_KING = 2;
+    public static final int BLACK_KING = 3;
+
+    public static final long BLACK_TO_MOVE;
+    private static final long[][] KEYS = new long[4][Squares.FIELDS];
+
+    static {
+        long seed = 0x44414D4553L; // "DAMES"
+        for (int type = 0; type < 4; type++) {
+            for (int field = 0; field < Squares.FIELDS; field++) {
+                seed += 0x9E3779B97F4A7C15L;
+                KEYS[type][field] = mix(seed);
+            }
+        }
+        seed += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(seed);
+    }
+
+    private Zobrist() {
+    }
+
+    public static long key(int type, int field) {
+        return KEYS[type][field];
+    }
+
+    // XOR des clés de toutes les cases du masque
+    public static long keys(int type, long fields) {
+        long hash = 0L;
+        while (fields != 0) {
+            hash ^= KEYS[type][Long.numberOfTrailingZeros(fields)];
+            fields &= fields - 1;
+        }
+        return hash;
+    }
+
+    // splitmix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
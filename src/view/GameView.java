@@ -8,6 +8,8 @@ import java.awt.image.BufferedImage;
 import javax.swing.*;
 import model.Board;
 import model.Piece;
+import model.PieceColor;
+import model.Squares;
 
 public class GameView extends JFrame {
     private static final int CELL_SIZE = 70;
@@ -220,31 +222,17 @@ public class GameView extends JFrame {
     
     public void drawBoard(Board board) {
         boardPanel.removeAll();
-        possibleMoves = new boolean[Board.SIZE][Board.SIZE];
-        
-        if (selectedRow != -1 && selectedCol != -1) {
-            Piece selectedPiece = board.getPiece(selectedRow, selectedCol);
-            if (selectedPiece != null) {
-                for (int row = 0; row < Board.SIZE; row++) {
-                    for (int col = 0; col < Board.SIZE; col++) {
-                        if (selectedPiece.isValidMove(row, col, board) || 
-                            selectedPiece.canCapture(row, col, board)) {
-                            possibleMoves[row][col] = true;
-                        }
-                    }
-                }
-            }
-        }
         
         for (int row = 0; row < Board.SIZE; row++) {
             for (int col = 0; col < Board.SIZE; col++) {
+                final boolean light = (row + col) % 2 == 0;
                 JPanel cell = new JPanel(new BorderLayout()) {
                     @Override
                     protected void paintComponent(Graphics g) {
                         super.paintComponent(g);
                         Graphics2D g2d = (Graphics2D) g;
                         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                        g2d.setColor((row + col) % 2 == 0 ? LIGHT_COLOR : DARK_COLOR);
+                        g2d.setColor(light ? LIGHT_COLOR : DARK_COLOR);
                         g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 10, 10);
                     }
                 };
@@ -261,10 +249,10 @@ public class GameView extends JFrame {
                     pieceLabel.setHorizontalAlignment(SwingConstants.CENTER);
                     
                     ImageIcon icon = null;
-                    if (piece instanceof model.Pawn) {
-                        icon = piece.getColor().equals("white") ? whitePawnIcon : blackPawnIcon;
-                    } else if (piece instanceof model.Queen) {
-                        icon = piece.getColor().equals("white") ? whiteQueenIcon : blackQueenIcon;
+                    if (!piece.isQueen()) {
+                        icon = piece.getColor() == PieceColor.WHITE ? whitePawnIcon : blackPawnIcon;
+                    } else {
+                        icon = piece.getColor() == PieceColor.WHITE ? whiteQueenIcon : blackQueenIcon;
                     }
                     
                     if (icon != null) {
@@ -272,12 +260,12 @@ public class GameView extends JFrame {
                         cell.add(pieceLabel, BorderLayout.CENTER);
                     } else {
                         // Fallback textuel
-                        String symbol = piece instanceof model.Queen ? 
-                            (piece.getColor().equals("white") ? "♕" : "♛") : 
-                            (piece.getColor().equals("white") ? "●" : "◉");
+                        String symbol = piece.isQueen() ? 
+                            (piece.getColor() == PieceColor.WHITE ? "♕" : "♛") : 
+                            (piece.getColor() == PieceColor.WHITE ? "●" : "◉");
                         JLabel fallback = new JLabel(symbol, SwingConstants.CENTER);
                         fallback.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 30));
-                        fallback.setForeground(piece.getColor().equals("white") ? Color.WHITE : Color.BLACK);
+                        fallback.setForeground(piece.getColor() == PieceColor.WHITE ? Color.WHITE : Color.BLACK);
                         cell.add(fallback, BorderLayout.CENTER);
                     }
                 }
@@ -321,6 +309,17 @@ public class GameView extends JFrame {
     public void resetSelection() { 
         selectedRow = -1; 
         selectedCol = -1; 
+        setPossibleMoves(0L);
+    }
+    
+    // Cases d'arrivée possibles de la pièce sélectionnée (masque de Squares)
+    public void setPossibleMoves(long targets) {
+        for (int row = 0; row < Board.SIZE; row++) {
+            for (int col = 0; col < Board.SIZE; col++) {
+                int field = Squares.field(row, col);
+                possibleMoves[row][col] = field >= 0 && (targets & Squares.bit(field)) != 0;
+            }
+        }
     }
     
     public void showMessage(String message) {